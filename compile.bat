@@ -11,6 +11,7 @@ if not exist "build\classes" (
 
 :: 编译所有Java文件
 javac -d build\classes ^
+    --add-modules jdk.incubator.vector ^
     -cp . ^
     src\main\java\com\gameengine\math\Vector2.java ^
     src\main\java\com\gameengine\input\InputManager.java ^
@@ -23,11 +24,58 @@ javac -d build\classes ^
     src\main\java\com\gameengine\core\GameEngine.java ^
     src\main\java\com\gameengine\core\GameLogic.java ^
     src\main\java\com\gameengine\scene\Scene.java ^
+    src\main\java\com\gameengine\components\AISteeringComponent.java ^
+    src\main\java\com\gameengine\scene\SceneCommandBuffer.java ^
+    src\main\java\com\gameengine\scene\SceneView.java ^
+    src\main\java\com\gameengine\core\Tag.java ^
+    src\main\java\com\gameengine\core\GameObjectListener.java ^
+    src\main\java\com\gameengine\scene\TagIndex.java ^
+    src\main\java\com\gameengine\physics\BodyBuffer.java ^
+    src\main\java\com\gameengine\physics\PhysicsIntegrator.java ^
+    src\main\java\com\gameengine\physics\ScalarPhysicsIntegrator.java ^
+    src\main\java\com\gameengine\physics\VectorPhysicsIntegrator.java ^
+    src\main\java\com\gameengine\physics\PhysicsIntegrators.java ^
+    src\main\java\com\gameengine\collision\SweptCollision.java ^
+    src\main\java\com\gameengine\collision\CircleSweepSet.java ^
+    src\main\java\com\gameengine\collision\NarrowPhase.java ^
+    src\main\java\com\gameengine\ai\AIScheduler.java ^
+    src\main\java\com\gameengine\ai\FlowField.java ^
+    src\main\java\com\gameengine\host\SimulationInstance.java ^
+    src\main\java\com\gameengine\host\SimulationHost.java ^
+    src\main\java\com\gameengine\net\BitWriter.java ^
+    src\main\java\com\gameengine\net\BitReader.java ^
+    src\main\java\com\gameengine\net\Snapshot.java ^
+    src\main\java\com\gameengine\net\SnapshotCodec.java ^
+    src\main\java\com\gameengine\net\FrameChannel.java ^
+    src\main\java\com\gameengine\net\ReplicationServer.java ^
+    src\main\java\com\gameengine\net\ReplicationClient.java ^
+    src\main\java\com\gameengine\scene\SceneSerializer.java ^
+    src\main\java\com\gameengine\world\ChunkLoader.java ^
+    src\main\java\com\gameengine\world\WorldChunk.java ^
+    src\main\java\com\gameengine\world\WorldPartition.java ^
+    src\main\java\com\gameengine\scene\Prefab.java ^
+    src\main\java\com\gameengine\scene\TransformBuffer.java ^
+    src\main\java\com\gameengine\core\EventBus.java ^
+    src\main\java\com\gameengine\metrics\Meter.java ^
+    src\main\java\com\gameengine\metrics\Histogram.java ^
+    src\main\java\com\gameengine\metrics\MetricsRegistry.java ^
+    src\main\java\com\gameengine\host\AllocationBudget.java ^
+    src\main\java\com\gameengine\host\ScenarioConfig.java ^
+    src\main\java\com\gameengine\host\ScenarioRunner.java ^
+    src\main\java\com\gameengine\math\FrameArena.java ^
+    src\main\java\com\gameengine\collision\CollisionLayer.java ^
+    src\main\java\com\gameengine\collision\CollisionMatrix.java ^
+    src\main\java\com\gameengine\collision\ColliderSet.java ^
+    src\main\java\com\gameengine\components\ColliderComponent.java ^
+    src\main\java\com\gameengine\collision\DynamicAabbTree.java ^
+    src\main\java\com\gameengine\scene\SpatialIndex.java ^
+    src\main\java\com\gameengine\graphics\RenderCommandList.java ^
+    src\main\java\com\gameengine\scene\RenderCommandRecorder.java ^
     src\main\java\com\gameengine\example\GameExample.java
 
 if %errorlevel% equ 0 (
     echo 编译成功！
-    echo 运行游戏: java -cp build\classes com.gameengine.example.GameExample
+    echo 运行游戏: java --add-modules jdk.incubator.vector -cp build\classes com.gameengine.example.GameExample
 ) else (
     echo 编译失败！
     exit /b 1
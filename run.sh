@@ -8,7 +8,7 @@ echo "启动游戏引擎..."
 
 if [ $? -eq 0 ]; then
     echo "运行游戏..."
-    java -cp build/classes com.gameengine.example.GameExample
+    java --add-modules jdk.incubator.vector -cp build/classes com.gameengine.example.GameExample
 else
     echo "编译失败，无法运行游戏"
     exit 1
@@ -0,0 +1,217 @@
+package com.gameengine.ai;
+
+import com.gameengine.components.TransformComponent;
+import com.gameengine.core.GameObject;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+public class AIScheduler {
+    public static final int DEFAULT_BUDGET = 256;
+    public static final float[] DEFAULT_LEVEL_DISTANCES = {300f, 800f};
+    public static final float[] DEFAULT_LEVEL_INTERVALS = {0f, 0.25f, 1.0f};
+    
+    private GameObject[] agents;
+    private double[] lastUpdate;
+    private boolean[] pending;
+    private int[] scheduledFrame;
+    private int count;
+    private final Map<GameObject, Integer> slots;
+    
+    private float[] levelDistancesSq;
+    private float[] levelIntervals;
+    private int budget;
+    private int cursor;
+    private int frame;
+    private double clock;
+    
+    private GameObject[] due;
+    private float[] dueDeltaTime;
+    private int[] dueLevel;
+    private int dueCount;
+    
+    public AIScheduler() {
+        this(DEFAULT_BUDGET);
+    }
+    
+    public AIScheduler(int budget) {
+        this.agents = new GameObject[16];
+        this.lastUpdate = new double[16];
+        this.pending = new boolean[16];
+        this.scheduledFrame = new int[16];
+        this.slots = new IdentityHashMap<>();
+        this.due = new GameObject[16];
+        this.dueDeltaTime = new float[16];
+        this.dueLevel = new int[16];
+        setBudget(budget);
+        setLevels(DEFAULT_LEVEL_DISTANCES, DEFAULT_LEVEL_INTERVALS);
+    }
+    
+    public void add(GameObject agent) {
+        if (agent == null || slots.containsKey(agent)) return;
+        if (count == agents.length) {
+            int capacity = count * 2;
+            agents = Arrays.copyOf(agents, capacity);
+            lastUpdate = Arrays.copyOf(lastUpdate, capacity);
+            pending = Arrays.copyOf(pending, capacity);
+            scheduledFrame = Arrays.copyOf(scheduledFrame, capacity);
+        }
+        agents[count] = agent;
+        lastUpdate[count] = clock;
+        pending[count] = true;
+        scheduledFrame[count] = frame - 1;
+        slots.put(agent, count);
+        count++;
+    }
+    
+    public void remove(GameObject agent) {
+        Integer slot = slots.get(agent);
+        if (slot != null) {
+            removeAt(slot);
+        }
+    }
+    
+    private void removeAt(int index) {
+        slots.remove(agents[index]);
+        int last = --count;
+        if (index != last) {
+            agents[index] = agents[last];
+            lastUpdate[index] = lastUpdate[last];
+            pending[index] = pending[last];
+            scheduledFrame[index] = scheduledFrame[last];
+            slots.put(agents[index], index);
+        }
+        agents[last] = null;
+    }
+    
+    public boolean contains(GameObject agent) {
+        return slots.containsKey(agent);
+    }
+    
+    public void clear() {
+        Arrays.fill(agents, 0, count, null);
+        Arrays.fill(due, 0, dueCount, null);
+        slots.clear();
+        count = 0;
+        dueCount = 0;
+        cursor = 0;
+    }
+    
+    // Walks the agents round-robin from where the previous frame stopped and picks those whose LOD interval has
+    // elapsed, until the budget is used up. Agents past the budget are reached first next frame, so nobody starves.
+    public int collect(float referenceX, float referenceY, float deltaTime) {
+        clock += deltaTime;
+        frame++;
+        Arrays.fill(due, 0, dueCount, null);
+        dueCount = 0;
+        if (count == 0) {
+            cursor = 0;
+            return 0;
+        }
+        
+        int index = cursor;
+        int visited = 0;
+        while (visited < count && dueCount < budget) {
+            if (index >= count) {
+                index = 0;
+            }
+            GameObject agent = agents[index];
+            if (!agent.isActive()) {
+                removeAt(index);
+                continue;
+            }
+            visited++;
+            
+            if (scheduledFrame[index] != frame) {
+                int level = levelOf(agent, referenceX, referenceY);
+                double elapsed = clock - lastUpdate[index];
+                if (pending[index] || elapsed >= levelIntervals[level]) {
+                    addDue(agent, (float) elapsed, level);
+                    lastUpdate[index] = clock;
+                    pending[index] = false;
+                    scheduledFrame[index] = frame;
+                }
+            }
+            index++;
+        }
+        cursor = index >= count ? 0 : index;
+        return dueCount;
+    }
+    
+    private int levelOf(GameObject agent, float referenceX, float referenceY) {
+        TransformComponent transform = agent.getComponent(TransformComponent.class);
+        if (transform == null) {
+            return levelIntervals.length - 1;
+        }
+        float dx = transform.getX() - referenceX;
+        float dy = transform.getY() - referenceY;
+        float distanceSq = dx * dx + dy * dy;
+        for (int level = 0; level < levelDistancesSq.length; level++) {
+            if (distanceSq < levelDistancesSq[level]) {
+                return level;
+            }
+        }
+        return levelDistancesSq.length;
+    }
+    
+    private void addDue(GameObject agent, float elapsed, int level) {
+        if (dueCount == due.length) {
+            int capacity = dueCount * 2;
+            due = Arrays.copyOf(due, capacity);
+            dueDeltaTime = Arrays.copyOf(dueDeltaTime, capacity);
+            dueLevel = Arrays.copyOf(dueLevel, capacity);
+        }
+        due[dueCount] = agent;
+        dueDeltaTime[dueCount] = elapsed;
+        dueLevel[dueCount] = level;
+        dueCount++;
+    }
+    
+    public int getDueCount() {
+        return dueCount;
+    }
+    
+    public GameObject getDue(int index) {
+        return due[index];
+    }
+    
+    public float getDueDeltaTime(int index) {
+        return dueDeltaTime[index];
+    }
+    
+    public int getDueLevel(int index) {
+        return dueLevel[index];
+    }
+    
+    public void setLevels(float[] distances, float[] intervals) {
+        if (distances == null || intervals == null || intervals.length != distances.length + 1) {
+            throw new IllegalArgumentException("AI LOD needs one more interval than distance thresholds");
+        }
+        float[] distancesSq = new float[distances.length];
+        for (int i = 0; i < distances.length; i++) {
+            distancesSq[i] = distances[i] * distances[i];
+        }
+        this.levelDistancesSq = distancesSq;
+        this.levelIntervals = intervals.clone();
+    }
+    
+    public int getLevelCount() {
+        return levelIntervals.length;
+    }
+    
+    public float getLevelInterval(int level) {
+        return levelIntervals[level];
+    }
+    
+    public int getBudget() {
+        return budget;
+    }
+    
+    public void setBudget(int budget) {
+        this.budget = Math.max(1, budget);
+    }
+    
+    public int size() {
+        return count;
+    }
+}
@@ -0,0 +1,269 @@
+package com.gameengine.ai;
+
+import com.gameengine.math.Vector2;
+import java.util.Arrays;
+
+public class FlowField {
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+    private static final int STRAIGHT_COST = 10;
+    private static final int DIAGONAL_COST = 14;
+    private static final int[] NEIGHBOR_DX = {1, -1, 0, 0, 1, 1, -1, -1};
+    private static final int[] NEIGHBOR_DY = {0, 0, 1, -1, 1, -1, 1, -1};
+    private static final float DIAGONAL = (float) (1 / Math.sqrt(2));
+    
+    private final float originX;
+    private final float originY;
+    private final float cellSize;
+    private final int columns;
+    private final int rows;
+    private final boolean[] blocked;
+    private final int[] cost;
+    private final float[] directionX;
+    private final float[] directionY;
+    private int[] heapCells;
+    private int[] heapCosts;
+    private int heapSize;
+    private int targetCell;
+    private boolean dirty;
+    private int rebuildCount;
+    
+    public FlowField(float originX, float originY, float cellSize, int columns, int rows) {
+        if (cellSize <= 0 || columns <= 0 || rows <= 0) {
+            throw new IllegalArgumentException("Flow field needs a positive cell size and grid dimensions");
+        }
+        this.originX = originX;
+        this.originY = originY;
+        this.cellSize = cellSize;
+        this.columns = columns;
+        this.rows = rows;
+        int cells = columns * rows;
+        this.blocked = new boolean[cells];
+        this.cost = new int[cells];
+        this.directionX = new float[cells];
+        this.directionY = new float[cells];
+        this.heapCells = new int[64];
+        this.heapCosts = new int[64];
+        this.targetCell = -1;
+        this.dirty = true;
+        Arrays.fill(cost, UNREACHABLE);
+    }
+    
+    public static FlowField covering(float width, float height, float cellSize) {
+        return new FlowField(0, 0, cellSize, (int) Math.ceil(width / cellSize), (int) Math.ceil(height / cellSize));
+    }
+    
+    // Only rebuilds when the target moved to another cell or the obstacles changed, so a target wandering
+    // inside one cell costs nothing no matter how many chasers sample the field.
+    public boolean update(float targetX, float targetY) {
+        int cell = cellIndex(targetX, targetY);
+        if (cell < 0 || blocked[cell]) {
+            return false;
+        }
+        if (cell == targetCell && !dirty) {
+            return false;
+        }
+        targetCell = cell;
+        dirty = false;
+        integrate();
+        buildDirections();
+        rebuildCount++;
+        return true;
+    }
+    
+    private void integrate() {
+        Arrays.fill(cost, UNREACHABLE);
+        heapSize = 0;
+        cost[targetCell] = 0;
+        push(targetCell, 0);
+        while (heapSize > 0) {
+            int cell = heapCells[0];
+            int cellCost = heapCosts[0];
+            pop();
+            if (cellCost > cost[cell]) continue;
+            
+            int column = cell % columns;
+            int row = cell / columns;
+            for (int n = 0; n < NEIGHBOR_DX.length; n++) {
+                int neighbor = neighborOf(column, row, NEIGHBOR_DX[n], NEIGHBOR_DY[n]);
+                if (neighbor < 0) continue;
+                int next = cellCost + (n < 4 ? STRAIGHT_COST : DIAGONAL_COST);
+                if (next < cost[neighbor]) {
+                    cost[neighbor] = next;
+                    push(neighbor, next);
+                }
+            }
+        }
+    }
+    
+    private void buildDirections() {
+        for (int cell = 0; cell < cost.length; cell++) {
+            directionX[cell] = 0;
+            directionY[cell] = 0;
+            if (cost[cell] == UNREACHABLE || cell == targetCell) continue;
+            
+            int column = cell % columns;
+            int row = cell / columns;
+            int best = cost[cell];
+            int bestDirection = -1;
+            for (int n = 0; n < NEIGHBOR_DX.length; n++) {
+                int neighbor = neighborOf(column, row, NEIGHBOR_DX[n], NEIGHBOR_DY[n]);
+                if (neighbor >= 0 && cost[neighbor] < best) {
+                    best = cost[neighbor];
+                    bestDirection = n;
+                }
+            }
+            if (bestDirection >= 0) {
+                float scale = bestDirection < 4 ? 1 : DIAGONAL;
+                directionX[cell] = NEIGHBOR_DX[bestDirection] * scale;
+                directionY[cell] = NEIGHBOR_DY[bestDirection] * scale;
+            }
+        }
+    }
+    
+    // Diagonal steps are only allowed when both orthogonal cells are open, so paths never cut obstacle corners
+    private int neighborOf(int column, int row, int dx, int dy) {
+        int nc = column + dx;
+        int nr = row + dy;
+        if (nc < 0 || nr < 0 || nc >= columns || nr >= rows) return -1;
+        int neighbor = nr * columns + nc;
+        if (blocked[neighbor]) return -1;
+        if (dx != 0 && dy != 0 && (blocked[row * columns + nc] || blocked[nr * columns + column])) return -1;
+        return neighbor;
+    }
+    
+    private void push(int cell, int cellCost) {
+        if (heapSize == heapCells.length) {
+            heapCells = Arrays.copyOf(heapCells, heapSize * 2);
+            heapCosts = Arrays.copyOf(heapCosts, heapSize * 2);
+        }
+        int i = heapSize++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heapCosts[parent] <= cellCost) break;
+            heapCells[i] = heapCells[parent];
+            heapCosts[i] = heapCosts[parent];
+            i = parent;
+        }
+        heapCells[i] = cell;
+        heapCosts[i] = cellCost;
+    }
+    
+    private void pop() {
+        int lastCell = heapCells[--heapSize];
+        int lastCost = heapCosts[heapSize];
+        int i = 0;
+        while (true) {
+            int child = i * 2 + 1;
+            if (child >= heapSize) break;
+            if (child + 1 < heapSize && heapCosts[child + 1] < heapCosts[child]) child++;
+            if (heapCosts[child] >= lastCost) break;
+            heapCells[i] = heapCells[child];
+            heapCosts[i] = heapCosts[child];
+            i = child;
+        }
+        heapCells[i] = lastCell;
+        heapCosts[i] = lastCost;
+    }
+    
+    // Blends the flow of the four nearest cell centres so chasers turn smoothly instead of snapping between
+    // the eight grid directions. Returns false outside the field, in the target cell or where the target is
+    // unreachable; callers then fall back to steering straight at the target.
+    public boolean sample(float x, float y, Vector2 out) {
+        out.x = 0;
+        out.y = 0;
+        int cell = cellIndex(x, y);
+        if (cell < 0 || cell == targetCell || cost[cell] == UNREACHABLE) {
+            return false;
+        }
+        
+        float gx = (x - originX) / cellSize - 0.5f;
+        float gy = (y - originY) / cellSize - 0.5f;
+        int column = (int) Math.floor(gx);
+        int row = (int) Math.floor(gy);
+        float fx = gx - column;
+        float fy = gy - row;
+        float sx = 0;
+        float sy = 0;
+        for (int corner = 0; corner < 4; corner++) {
+            int c = column + (corner & 1);
+            int r = row + (corner >> 1);
+            if (c < 0 || r < 0 || c >= columns || r >= rows) continue;
+            int index = r * columns + c;
+            float weight = ((corner & 1) == 0 ? 1 - fx : fx) * ((corner >> 1) == 0 ? 1 - fy : fy);
+            sx += directionX[index] * weight;
+            sy += directionY[index] * weight;
+        }
+        
+        float length = (float) Math.sqrt(sx * sx + sy * sy);
+        if (length < 1e-4f) {
+            sx = directionX[cell];
+            sy = directionY[cell];
+            length = (float) Math.sqrt(sx * sx + sy * sy);
+            if (length == 0) {
+                return false;
+            }
+        }
+        out.x = sx / length;
+        out.y = sy / length;
+        return true;
+    }
+    
+    public int cellIndex(float x, float y) {
+        int column = (int) Math.floor((x - originX) / cellSize);
+        int row = (int) Math.floor((y - originY) / cellSize);
+        if (column < 0 || row < 0 || column >= columns || row >= rows) {
+            return -1;
+        }
+        return row * columns + column;
+    }
+    
+    public int getCost(float x, float y) {
+        int cell = cellIndex(x, y);
+        return cell < 0 ? UNREACHABLE : cost[cell];
+    }
+    
+    public boolean isBlocked(int column, int row) {
+        return blocked[row * columns + column];
+    }
+    
+    public void setBlocked(int column, int row, boolean value) {
+        int cell = row * columns + column;
+        if (blocked[cell] != value) {
+            blocked[cell] = value;
+            dirty = true;
+        }
+    }
+    
+    public void setBlockedRect(float x, float y, float width, float height, boolean value) {
+        int minColumn = Math.max(0, (int) Math.floor((x - originX) / cellSize));
+        int minRow = Math.max(0, (int) Math.floor((y - originY) / cellSize));
+        int maxColumn = Math.min(columns - 1, (int) Math.floor((x + width - originX) / cellSize));
+        int maxRow = Math.min(rows - 1, (int) Math.floor((y + height - originY) / cellSize));
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                setBlocked(column, row, value);
+            }
+        }
+    }
+    
+    public void clearObstacles() {
+        Arrays.fill(blocked, false);
+        dirty = true;
+    }
+    
+    public int getColumns() {
+        return columns;
+    }
+    
+    public int getRows() {
+        return rows;
+    }
+    
+    public float getCellSize() {
+        return cellSize;
+    }
+    
+    public int getRebuildCount() {
+        return rebuildCount;
+    }
+}
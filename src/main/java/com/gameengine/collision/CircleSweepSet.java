@@ -0,0 +1,106 @@
+package com.gameengine.collision;
+
+import com.gameengine.components.PhysicsComponent;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.core.GameObject;
+import java.util.Arrays;
+import java.util.List;
+
+public class CircleSweepSet {
+    float[] startX;
+    float[] startY;
+    float[] deltaX;
+    float[] deltaY;
+    float[] radius;
+    private boolean[] sleeping;
+    private GameObject[] objects;
+    private int count;
+    
+    public CircleSweepSet() {
+        this(32);
+    }
+    
+    public CircleSweepSet(int capacity) {
+        capacity = Math.max(1, capacity);
+        startX = new float[capacity];
+        startY = new float[capacity];
+        deltaX = new float[capacity];
+        deltaY = new float[capacity];
+        radius = new float[capacity];
+        sleeping = new boolean[capacity];
+        objects = new GameObject[capacity];
+    }
+    
+    public void clear() {
+        Arrays.fill(objects, 0, count, null);
+        count = 0;
+    }
+    
+    public void capture(List<GameObject> gameObjects, float circleRadius, float deltaTime) {
+        clear();
+        for (int i = 0; i < gameObjects.size(); i++) {
+            add(gameObjects.get(i), circleRadius, deltaTime);
+        }
+    }
+    
+    public boolean add(GameObject gameObject, float circleRadius, float deltaTime) {
+        if (!gameObject.isActive()) {
+            return false;
+        }
+        TransformComponent transform = gameObject.getComponent(TransformComponent.class);
+        if (transform == null) {
+            return false;
+        }
+        PhysicsComponent physics = gameObject.getComponent(PhysicsComponent.class);
+        float dx = physics != null ? physics.getVelocityX() * deltaTime : 0;
+        float dy = physics != null ? physics.getVelocityY() * deltaTime : 0;
+        add(gameObject, transform.getX() - dx, transform.getY() - dy, dx, dy, circleRadius);
+        sleeping[count - 1] = physics != null && physics.isSleeping();
+        return true;
+    }
+    
+    public void add(GameObject gameObject, float x, float y, float dx, float dy, float circleRadius) {
+        ensureCapacity(count + 1);
+        startX[count] = x;
+        startY[count] = y;
+        deltaX[count] = dx;
+        deltaY[count] = dy;
+        radius[count] = circleRadius;
+        sleeping[count] = false;
+        objects[count] = gameObject;
+        count++;
+    }
+    
+    private void ensureCapacity(int capacity) {
+        if (capacity <= startX.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, startX.length * 2);
+        startX = Arrays.copyOf(startX, newCapacity);
+        startY = Arrays.copyOf(startY, newCapacity);
+        deltaX = Arrays.copyOf(deltaX, newCapacity);
+        deltaY = Arrays.copyOf(deltaY, newCapacity);
+        radius = Arrays.copyOf(radius, newCapacity);
+        sleeping = Arrays.copyOf(sleeping, newCapacity);
+        objects = Arrays.copyOf(objects, newCapacity);
+    }
+    
+    public float sweep(int index, CircleSweepSet other, int otherIndex) {
+        return SweptCollision.sweepCircleCircle(
+            startX[index], startY[index], radius[index], deltaX[index], deltaY[index],
+            other.startX[otherIndex], other.startY[otherIndex], other.radius[otherIndex],
+            other.deltaX[otherIndex], other.deltaY[otherIndex]);
+    }
+    
+    public int size() {
+        return count;
+    }
+    
+    public GameObject getObject(int index) {
+        return objects[index];
+    }
+    
+    public boolean isSleeping(int index) {
+        return sleeping[index];
+    }
+}
@@ -0,0 +1,214 @@
+package com.gameengine.collision;
+
+import com.gameengine.components.ColliderComponent;
+import com.gameengine.components.PhysicsComponent;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.core.GameObject;
+import java.util.Arrays;
+import java.util.List;
+
+public class ColliderSet {
+    private float[] startX;
+    private float[] startY;
+    private float[] deltaX;
+    private float[] deltaY;
+    private float[] radius;
+    private float[] halfWidth;
+    private float[] halfHeight;
+    private boolean[] box;
+    private boolean[] trigger;
+    private boolean[] sleeping;
+    private int[] layer;
+    private GameObject[] objects;
+    private int[] order;
+    private final int[] bucketStart;
+    private int count;
+    private boolean sorted;
+    
+    public ColliderSet() {
+        this(32);
+    }
+    
+    public ColliderSet(int capacity) {
+        capacity = Math.max(1, capacity);
+        startX = new float[capacity];
+        startY = new float[capacity];
+        deltaX = new float[capacity];
+        deltaY = new float[capacity];
+        radius = new float[capacity];
+        halfWidth = new float[capacity];
+        halfHeight = new float[capacity];
+        box = new boolean[capacity];
+        trigger = new boolean[capacity];
+        sleeping = new boolean[capacity];
+        layer = new int[capacity];
+        objects = new GameObject[capacity];
+        order = new int[capacity];
+        bucketStart = new int[CollisionLayer.MAX_LAYERS * 2 + 1];
+    }
+    
+    public void clear() {
+        Arrays.fill(objects, 0, count, null);
+        count = 0;
+        sorted = false;
+    }
+    
+    public void capture(List<GameObject> gameObjects, float deltaTime) {
+        clear();
+        addAll(gameObjects, deltaTime);
+    }
+    
+    public void addAll(List<GameObject> gameObjects, float deltaTime) {
+        for (int i = 0; i < gameObjects.size(); i++) {
+            add(gameObjects.get(i), deltaTime);
+        }
+    }
+    
+    // Objects without a collider (or disabled ones) are skipped. As with CircleSweepSet, the shape is placed where
+    // it was at the start of the step and swept along this step's displacement.
+    public boolean add(GameObject gameObject, float deltaTime) {
+        if (!gameObject.isActive()) {
+            return false;
+        }
+        ColliderComponent collider = gameObject.getComponent(ColliderComponent.class);
+        if (collider == null || !collider.isEnabled()) {
+            return false;
+        }
+        TransformComponent transform = gameObject.getComponent(TransformComponent.class);
+        if (transform == null) {
+            return false;
+        }
+        PhysicsComponent physics = gameObject.getComponent(PhysicsComponent.class);
+        float dx = physics != null ? physics.getVelocityX() * deltaTime : 0;
+        float dy = physics != null ? physics.getVelocityY() * deltaTime : 0;
+        
+        ensureCapacity(count + 1);
+        startX[count] = transform.getX() + collider.getOffsetX() - dx;
+        startY[count] = transform.getY() + collider.getOffsetY() - dy;
+        deltaX[count] = dx;
+        deltaY[count] = dy;
+        radius[count] = collider.getRadius();
+        halfWidth[count] = collider.getHalfWidth();
+        halfHeight[count] = collider.getHalfHeight();
+        box[count] = collider.getShape() == ColliderComponent.Shape.AABB;
+        trigger[count] = collider.isTrigger();
+        sleeping[count] = physics != null && physics.isSleeping();
+        layer[count] = collider.getLayer().getIndex();
+        objects[count] = gameObject;
+        count++;
+        sorted = false;
+        return true;
+    }
+    
+    private void ensureCapacity(int capacity) {
+        if (capacity <= startX.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, startX.length * 2);
+        startX = Arrays.copyOf(startX, newCapacity);
+        startY = Arrays.copyOf(startY, newCapacity);
+        deltaX = Arrays.copyOf(deltaX, newCapacity);
+        deltaY = Arrays.copyOf(deltaY, newCapacity);
+        radius = Arrays.copyOf(radius, newCapacity);
+        halfWidth = Arrays.copyOf(halfWidth, newCapacity);
+        halfHeight = Arrays.copyOf(halfHeight, newCapacity);
+        box = Arrays.copyOf(box, newCapacity);
+        trigger = Arrays.copyOf(trigger, newCapacity);
+        sleeping = Arrays.copyOf(sleeping, newCapacity);
+        layer = Arrays.copyOf(layer, newCapacity);
+        objects = Arrays.copyOf(objects, newCapacity);
+        order = new int[newCapacity];
+    }
+    
+    // Stable counting sort by layer, with the awake colliders of each layer ahead of the sleeping ones. All indices
+    // taken by test, getObject, getLayerIndex and isTrigger are positions in this order, so each layer is one
+    // contiguous range, a layer pair is just two ranges, and a sleeping collider only needs a range's awake prefix.
+    public void sortByLayer() {
+        if (sorted) {
+            return;
+        }
+        Arrays.fill(bucketStart, 0);
+        for (int i = 0; i < count; i++) {
+            bucketStart[bucket(i) + 1]++;
+        }
+        for (int k = 0; k < bucketStart.length - 1; k++) {
+            bucketStart[k + 1] += bucketStart[k];
+        }
+        for (int i = 0; i < count; i++) {
+            order[bucketStart[bucket(i)]++] = i;
+        }
+        for (int k = bucketStart.length - 1; k > 0; k--) {
+            bucketStart[k] = bucketStart[k - 1];
+        }
+        bucketStart[0] = 0;
+        sorted = true;
+    }
+    
+    private int bucket(int i) {
+        return layer[i] * 2 + (sleeping[i] ? 1 : 0);
+    }
+    
+    public int getLayerStart(int layerIndex) {
+        return bucketStart[layerIndex * 2];
+    }
+    
+    public int getSleepingStart(int layerIndex) {
+        return bucketStart[layerIndex * 2 + 1];
+    }
+    
+    public int getLayerEnd(int layerIndex) {
+        return bucketStart[layerIndex * 2 + 2];
+    }
+    
+    public float test(int a, int b) {
+        int i = sorted ? order[a] : a;
+        int j = sorted ? order[b] : b;
+        if (box[i] && !box[j]) {
+            int swap = i;
+            i = j;
+            j = swap;
+        }
+        // displacement of i relative to j, so j can be treated as standing still
+        float dx = deltaX[i] - deltaX[j];
+        float dy = deltaY[i] - deltaY[j];
+        if (!box[j]) {
+            return SweptCollision.sweepCircleCircle(startX[i], startY[i], radius[i], deltaX[i], deltaY[i],
+                startX[j], startY[j], radius[j], deltaX[j], deltaY[j]);
+        }
+        if (!box[i]) {
+            return SweptCollision.sweepCircleAABB(startX[i], startY[i], radius[i], dx, dy,
+                startX[j] - halfWidth[j], startY[j] - halfHeight[j],
+                startX[j] + halfWidth[j], startY[j] + halfHeight[j]);
+        }
+        // box against box: sweep the center of i against j grown by i's half extents
+        float hw = halfWidth[i] + halfWidth[j];
+        float hh = halfHeight[i] + halfHeight[j];
+        float ox = startX[i] - startX[j];
+        float oy = startY[i] - startY[j];
+        if (Math.abs(ox) < hw && Math.abs(oy) < hh) {
+            return 0;
+        }
+        return SweptCollision.sweepCircleAABB(startX[i], startY[i], 0, dx, dy,
+            startX[j] - hw, startY[j] - hh, startX[j] + hw, startY[j] + hh);
+    }
+    
+    public int size() {
+        return count;
+    }
+    
+    public GameObject getObject(int index) {
+        return objects[sorted ? order[index] : index];
+    }
+    
+    public int getLayerIndex(int index) {
+        return layer[sorted ? order[index] : index];
+    }
+    
+    public boolean isTrigger(int index) {
+        return trigger[sorted ? order[index] : index];
+    }
+    
+    public boolean isSleeping(int index) {
+        return sleeping[sorted ? order[index] : index];
+    }
+}
@@ -0,0 +1,56 @@
+package com.gameengine.collision;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class CollisionLayer {
+    public static final int MAX_LAYERS = 32;
+    
+    private static final ConcurrentHashMap<String, CollisionLayer> LAYERS = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_INDEX = new AtomicInteger();
+    
+    public static final CollisionLayer DEFAULT = of("Default");
+    
+    private final String name;
+    private final int index;
+    
+    private CollisionLayer(String name, int index) {
+        this.name = name;
+        this.index = index;
+    }
+    
+    // Layers are process-wide like tags; each one is a single bit so a collision mask fits in an int
+    public static CollisionLayer of(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Collision layer name must not be null");
+        }
+        CollisionLayer layer = LAYERS.get(name);
+        if (layer != null) {
+            return layer;
+        }
+        return LAYERS.computeIfAbsent(name, n -> {
+            int index = NEXT_INDEX.getAndIncrement();
+            if (index >= MAX_LAYERS) {
+                throw new IllegalStateException("Too many collision layers (max " + MAX_LAYERS + "): " + n);
+            }
+            return new CollisionLayer(n, index);
+        });
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public int getIndex() {
+        return index;
+    }
+    
+    public int getBit() {
+        return 1 << index;
+    }
+    
+    @Override
+    public String toString() {
+        return "CollisionLayer(" + name + ")";
+    }
+}
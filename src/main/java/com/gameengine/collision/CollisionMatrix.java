@@ -0,0 +1,44 @@
+package com.gameengine.collision;
+
+import java.util.Arrays;
+
+public class CollisionMatrix {
+    private final int[] masks;
+    
+    public CollisionMatrix() {
+        this(true);
+    }
+    
+    public CollisionMatrix(boolean collideByDefault) {
+        this.masks = new int[CollisionLayer.MAX_LAYERS];
+        Arrays.fill(masks, collideByDefault ? -1 : 0);
+    }
+    
+    // Always symmetric: enabling (a, b) also enables (b, a)
+    public CollisionMatrix setCollides(CollisionLayer a, CollisionLayer b, boolean collides) {
+        if (collides) {
+            masks[a.getIndex()] |= b.getBit();
+            masks[b.getIndex()] |= a.getBit();
+        } else {
+            masks[a.getIndex()] &= ~b.getBit();
+            masks[b.getIndex()] &= ~a.getBit();
+        }
+        return this;
+    }
+    
+    public boolean collides(CollisionLayer a, CollisionLayer b) {
+        return collides(a.getIndex(), b.getIndex());
+    }
+    
+    public boolean collides(int layerA, int layerB) {
+        return (masks[layerA] & (1 << layerB)) != 0;
+    }
+    
+    public int getMask(CollisionLayer layer) {
+        return masks[layer.getIndex()];
+    }
+    
+    public int getMask(int layerIndex) {
+        return masks[layerIndex];
+    }
+}
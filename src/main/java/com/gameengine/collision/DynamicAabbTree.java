@@ -0,0 +1,573 @@
+package com.gameengine.collision;
+
+import com.gameengine.core.GameObject;
+import java.util.Arrays;
+
+public class DynamicAabbTree {
+    public static final int NULL_NODE = -1;
+    public static final float DEFAULT_MARGIN = 8f;
+    public static final float DISPLACEMENT_MULTIPLIER = 4f;
+    
+    public interface QueryCallback {
+        // Return false to stop the query
+        boolean accept(int proxy);
+    }
+    
+    public interface RayCallback {
+        // Return a negative value to ignore the proxy, 0 to stop, or the fraction to clip the ray to
+        float hit(int proxy, float maxFraction);
+    }
+    
+    public interface DistanceFunction {
+        // Squared distance from the query point to the proxy, or a negative value to skip it
+        float distanceSquared(int proxy);
+    }
+    
+    // One traversal stack per nesting depth, so a callback may run another query on the same thread
+    private static final class Stacks {
+        private int[][] levels = new int[4][];
+        private int depth;
+        
+        int[] acquire() {
+            if (depth == levels.length) {
+                levels = Arrays.copyOf(levels, depth * 2);
+            }
+            if (levels[depth] == null) {
+                levels[depth] = new int[64];
+            }
+            return levels[depth++];
+        }
+        
+        int[] push(int[] stack, int size, int node) {
+            if (size == stack.length) {
+                stack = Arrays.copyOf(stack, size * 2);
+                levels[depth - 1] = stack;
+            }
+            stack[size] = node;
+            return stack;
+        }
+        
+        void release() {
+            depth--;
+        }
+    }
+    
+    private static final ThreadLocal<Stacks> STACKS = ThreadLocal.withInitial(Stacks::new);
+    
+    private float[] minX;
+    private float[] minY;
+    private float[] maxX;
+    private float[] maxY;
+    private int[] parent;
+    private int[] child1;
+    private int[] child2;
+    private int[] height;
+    private GameObject[] objects;
+    private int root;
+    private int freeList;
+    private int nodeCount;
+    private int proxyCount;
+    private long reinsertCount;
+    private final float margin;
+    
+    public DynamicAabbTree() {
+        this(DEFAULT_MARGIN, 64);
+    }
+    
+    public DynamicAabbTree(float margin, int capacity) {
+        if (margin < 0) {
+            throw new IllegalArgumentException("Margin must not be negative: " + margin);
+        }
+        this.margin = margin;
+        this.root = NULL_NODE;
+        this.freeList = NULL_NODE;
+        capacity = Math.max(1, capacity);
+        minX = new float[capacity];
+        minY = new float[capacity];
+        maxX = new float[capacity];
+        maxY = new float[capacity];
+        parent = new int[capacity];
+        child1 = new int[capacity];
+        child2 = new int[capacity];
+        height = new int[capacity];
+        objects = new GameObject[capacity];
+        linkFree(0, capacity);
+    }
+    
+    private void linkFree(int from, int to) {
+        for (int i = from; i < to - 1; i++) {
+            parent[i] = i + 1;
+            height[i] = -1;
+        }
+        parent[to - 1] = freeList;
+        height[to - 1] = -1;
+        freeList = from;
+    }
+    
+    private int allocateNode() {
+        if (freeList == NULL_NODE) {
+            int oldCapacity = minX.length;
+            int newCapacity = oldCapacity * 2;
+            minX = Arrays.copyOf(minX, newCapacity);
+            minY = Arrays.copyOf(minY, newCapacity);
+            maxX = Arrays.copyOf(maxX, newCapacity);
+            maxY = Arrays.copyOf(maxY, newCapacity);
+            parent = Arrays.copyOf(parent, newCapacity);
+            child1 = Arrays.copyOf(child1, newCapacity);
+            child2 = Arrays.copyOf(child2, newCapacity);
+            height = Arrays.copyOf(height, newCapacity);
+            objects = Arrays.copyOf(objects, newCapacity);
+            linkFree(oldCapacity, newCapacity);
+        }
+        int node = freeList;
+        freeList = parent[node];
+        parent[node] = NULL_NODE;
+        child1[node] = NULL_NODE;
+        child2[node] = NULL_NODE;
+        height[node] = 0;
+        objects[node] = null;
+        nodeCount++;
+        return node;
+    }
+    
+    private void freeNode(int node) {
+        objects[node] = null;
+        parent[node] = freeList;
+        height[node] = -1;
+        freeList = node;
+        nodeCount--;
+    }
+    
+    // Stores the bounds grown by the margin on every side; the returned proxy id stays valid until destroyProxy
+    public int createProxy(GameObject gameObject, float x0, float y0, float x1, float y1) {
+        int proxy = allocateNode();
+        minX[proxy] = x0 - margin;
+        minY[proxy] = y0 - margin;
+        maxX[proxy] = x1 + margin;
+        maxY[proxy] = y1 + margin;
+        objects[proxy] = gameObject;
+        insertLeaf(proxy);
+        proxyCount++;
+        return proxy;
+    }
+    
+    public void destroyProxy(int proxy) {
+        checkProxy(proxy);
+        removeLeaf(proxy);
+        freeNode(proxy);
+        proxyCount--;
+    }
+    
+    // Nothing happens while the new bounds stay inside the stored fat bounds and those are not grossly oversized.
+    // Otherwise the leaf is reinserted with bounds grown by the margin and stretched along (dx, dy), so an object
+    // moving steadily in one direction keeps fitting for several more frames. Returns whether it was reinserted.
+    public boolean moveProxy(int proxy, float x0, float y0, float x1, float y1, float dx, float dy) {
+        checkProxy(proxy);
+        float ex = dx * DISPLACEMENT_MULTIPLIER;
+        float ey = dy * DISPLACEMENT_MULTIPLIER;
+        float fatMinX = x0 - margin + Math.min(ex, 0);
+        float fatMinY = y0 - margin + Math.min(ey, 0);
+        float fatMaxX = x1 + margin + Math.max(ex, 0);
+        float fatMaxY = y1 + margin + Math.max(ey, 0);
+        if (minX[proxy] <= x0 && minY[proxy] <= y0 && x1 <= maxX[proxy] && y1 <= maxY[proxy]) {
+            // still fits; keep it unless it is left over from a much larger move
+            float huge = 4 * margin;
+            if (fatMinX - huge <= minX[proxy] && fatMinY - huge <= minY[proxy]
+                    && maxX[proxy] <= fatMaxX + huge && maxY[proxy] <= fatMaxY + huge) {
+                return false;
+            }
+        }
+        removeLeaf(proxy);
+        minX[proxy] = fatMinX;
+        minY[proxy] = fatMinY;
+        maxX[proxy] = fatMaxX;
+        maxY[proxy] = fatMaxY;
+        insertLeaf(proxy);
+        reinsertCount++;
+        return true;
+    }
+    
+    private void checkProxy(int proxy) {
+        if (proxy < 0 || proxy >= minX.length || height[proxy] != 0 || objects[proxy] == null) {
+            throw new IllegalArgumentException("Invalid proxy " + proxy);
+        }
+    }
+    
+    private boolean isLeaf(int node) {
+        return child1[node] == NULL_NODE;
+    }
+    
+    private static float perimeter(float x0, float y0, float x1, float y1) {
+        return 2 * ((x1 - x0) + (y1 - y0));
+    }
+    
+    private float unionPerimeter(int a, int b) {
+        return perimeter(Math.min(minX[a], minX[b]), Math.min(minY[a], minY[b]),
+            Math.max(maxX[a], maxX[b]), Math.max(maxY[a], maxY[b]));
+    }
+    
+    private void setUnion(int node, int a, int b) {
+        minX[node] = Math.min(minX[a], minX[b]);
+        minY[node] = Math.min(minY[a], minY[b]);
+        maxX[node] = Math.max(maxX[a], maxX[b]);
+        maxY[node] = Math.max(maxY[a], maxY[b]);
+    }
+    
+    // Descends towards the sibling that grows the tree's total perimeter least, as in Box2D's dynamic tree
+    private void insertLeaf(int leaf) {
+        if (root == NULL_NODE) {
+            root = leaf;
+            parent[root] = NULL_NODE;
+            return;
+        }
+        
+        int index = root;
+        while (!isLeaf(index)) {
+            int c1 = child1[index];
+            int c2 = child2[index];
+            float area = perimeter(minX[index], minY[index], maxX[index], maxY[index]);
+            float combinedArea = unionPerimeter(index, leaf);
+            float cost = 2 * combinedArea;
+            float inheritanceCost = 2 * (combinedArea - area);
+            float cost1 = childCost(c1, leaf) + inheritanceCost;
+            float cost2 = childCost(c2, leaf) + inheritanceCost;
+            if (cost < cost1 && cost < cost2) {
+                break;
+            }
+            index = cost1 < cost2 ? c1 : c2;
+        }
+        
+        int sibling = index;
+        int oldParent = parent[sibling];
+        int newParent = allocateNode();
+        parent[newParent] = oldParent;
+        setUnion(newParent, leaf, sibling);
+        height[newParent] = height[sibling] + 1;
+        if (oldParent != NULL_NODE) {
+            if (child1[oldParent] == sibling) {
+                child1[oldParent] = newParent;
+            } else {
+                child2[oldParent] = newParent;
+            }
+        } else {
+            root = newParent;
+        }
+        child1[newParent] = sibling;
+        child2[newParent] = leaf;
+        parent[sibling] = newParent;
+        parent[leaf] = newParent;
+        
+        refit(parent[leaf]);
+    }
+    
+    private float childCost(int child, int leaf) {
+        float combined = unionPerimeter(child, leaf);
+        if (isLeaf(child)) {
+            return combined;
+        }
+        return combined - perimeter(minX[child], minY[child], maxX[child], maxY[child]);
+    }
+    
+    private void removeLeaf(int leaf) {
+        if (leaf == root) {
+            root = NULL_NODE;
+            return;
+        }
+        int parentNode = parent[leaf];
+        int grandParent = parent[parentNode];
+        int sibling = child1[parentNode] == leaf ? child2[parentNode] : child1[parentNode];
+        if (grandParent != NULL_NODE) {
+            if (child1[grandParent] == parentNode) {
+                child1[grandParent] = sibling;
+            } else {
+                child2[grandParent] = sibling;
+            }
+            parent[sibling] = grandParent;
+            freeNode(parentNode);
+            refit(grandParent);
+        } else {
+            root = sibling;
+            parent[sibling] = NULL_NODE;
+            freeNode(parentNode);
+        }
+    }
+    
+    private void refit(int index) {
+        while (index != NULL_NODE) {
+            index = balance(index);
+            int c1 = child1[index];
+            int c2 = child2[index];
+            height[index] = 1 + Math.max(height[c1], height[c2]);
+            setUnion(index, c1, c2);
+            index = parent[index];
+        }
+    }
+    
+    // Rotates the taller grandchild up when the two subtrees of a differ in height by more than one
+    private int balance(int a) {
+        if (isLeaf(a) || height[a] < 2) {
+            return a;
+        }
+        int b = child1[a];
+        int c = child2[a];
+        int difference = height[c] - height[b];
+        if (difference > 1) {
+            return rotateUp(a, c, b, false);
+        }
+        if (difference < -1) {
+            return rotateUp(a, b, c, true);
+        }
+        return a;
+    }
+    
+    // Moves child up into a's place; a keeps other and takes the shorter of child's children
+    private int rotateUp(int a, int child, int other, boolean childIsFirst) {
+        int f = child1[child];
+        int g = child2[child];
+        child1[child] = a;
+        parent[child] = parent[a];
+        parent[a] = child;
+        int grandParent = parent[child];
+        if (grandParent != NULL_NODE) {
+            if (child1[grandParent] == a) {
+                child1[grandParent] = child;
+            } else {
+                child2[grandParent] = child;
+            }
+        } else {
+            root = child;
+        }
+        
+        int keep = height[f] > height[g] ? f : g;
+        int move = keep == f ? g : f;
+        child2[child] = keep;
+        if (childIsFirst) {
+            child1[a] = move;
+        } else {
+            child2[a] = move;
+        }
+        parent[move] = a;
+        setUnion(a, other, move);
+        setUnion(child, a, keep);
+        height[a] = 1 + Math.max(height[other], height[move]);
+        height[child] = 1 + Math.max(height[a], height[keep]);
+        return child;
+    }
+    
+    // Visits every proxy whose fat bounds overlap the box. Queries may run on several threads at once as long as
+    // nothing creates, moves or destroys proxies meanwhile.
+    public void query(float x0, float y0, float x1, float y1, QueryCallback callback) {
+        if (root == NULL_NODE) return;
+        Stacks stacks = STACKS.get();
+        int[] stack = stacks.acquire();
+        try {
+            int size = 0;
+            stack[size++] = root;
+            while (size > 0) {
+                int node = stack[--size];
+                if (maxX[node] < x0 || maxY[node] < y0 || minX[node] > x1 || minY[node] > y1) {
+                    continue;
+                }
+                if (isLeaf(node)) {
+                    if (!callback.accept(node)) {
+                        return;
+                    }
+                } else {
+                    stack = stacks.push(stack, size++, child1[node]);
+                    stack = stacks.push(stack, size++, child2[node]);
+                }
+            }
+        } finally {
+            stacks.release();
+        }
+    }
+    
+    // Segment from (x0, y0) to (x1, y1); the callback decides per proxy how far the ray continues
+    public void raycast(float x0, float y0, float x1, float y1, float maxFraction, RayCallback callback) {
+        if (root == NULL_NODE) return;
+        float dx = x1 - x0;
+        float dy = y1 - y0;
+        Stacks stacks = STACKS.get();
+        int[] stack = stacks.acquire();
+        try {
+            int size = 0;
+            stack[size++] = root;
+            while (size > 0) {
+                int node = stack[--size];
+                if (entryFraction(node, x0, y0, dx, dy) > maxFraction) {
+                    continue;
+                }
+                if (isLeaf(node)) {
+                    float value = callback.hit(node, maxFraction);
+                    if (value == 0) {
+                        return;
+                    }
+                    if (value > 0 && value < maxFraction) {
+                        maxFraction = value;
+                    }
+                } else {
+                    stack = stacks.push(stack, size++, child1[node]);
+                    stack = stacks.push(stack, size++, child2[node]);
+                }
+            }
+        } finally {
+            stacks.release();
+        }
+    }
+    
+    // Slab test: the fraction at which the segment enters the node's box, or +infinity if it misses
+    private float entryFraction(int node, float x0, float y0, float dx, float dy) {
+        float tEnter = 0;
+        float tExit = 1;
+        if (dx == 0) {
+            if (x0 < minX[node] || x0 > maxX[node]) return Float.POSITIVE_INFINITY;
+        } else {
+            float t1 = (minX[node] - x0) / dx;
+            float t2 = (maxX[node] - x0) / dx;
+            tEnter = Math.max(tEnter, Math.min(t1, t2));
+            tExit = Math.min(tExit, Math.max(t1, t2));
+        }
+        if (dy == 0) {
+            if (y0 < minY[node] || y0 > maxY[node]) return Float.POSITIVE_INFINITY;
+        } else {
+            float t1 = (minY[node] - y0) / dy;
+            float t2 = (maxY[node] - y0) / dy;
+            tEnter = Math.max(tEnter, Math.min(t1, t2));
+            tExit = Math.min(tExit, Math.max(t1, t2));
+        }
+        return tEnter <= tExit ? tEnter : Float.POSITIVE_INFINITY;
+    }
+    
+    // Branch and bound: a subtree is skipped once its box is farther than the best proxy found so far, and the
+    // nearer child is searched first. The distance function must measure to a point inside the proxy's bounds.
+    public int nearest(float x, float y, float maxDistance, DistanceFunction distance) {
+        if (root == NULL_NODE) return NULL_NODE;
+        float best = maxDistance * maxDistance;
+        int bestProxy = NULL_NODE;
+        Stacks stacks = STACKS.get();
+        int[] stack = stacks.acquire();
+        try {
+            int size = 0;
+            stack[size++] = root;
+            while (size > 0) {
+                int node = stack[--size];
+                if (boxDistanceSquared(node, x, y) > best) {
+                    continue;
+                }
+                if (isLeaf(node)) {
+                    float d = distance.distanceSquared(node);
+                    if (d >= 0 && d <= best) {
+                        best = d;
+                        bestProxy = node;
+                    }
+                } else {
+                    int near = child1[node];
+                    int far = child2[node];
+                    if (boxDistanceSquared(far, x, y) < boxDistanceSquared(near, x, y)) {
+                        near = child2[node];
+                        far = child1[node];
+                    }
+                    stack = stacks.push(stack, size++, far);
+                    stack = stacks.push(stack, size++, near);
+                }
+            }
+        } finally {
+            stacks.release();
+        }
+        return bestProxy;
+    }
+    
+    private float boxDistanceSquared(int node, float x, float y) {
+        float dx = Math.max(0, Math.max(minX[node] - x, x - maxX[node]));
+        float dy = Math.max(0, Math.max(minY[node] - y, y - maxY[node]));
+        return dx * dx + dy * dy;
+    }
+    
+    public void clear() {
+        Arrays.fill(objects, null);
+        root = NULL_NODE;
+        freeList = NULL_NODE;
+        nodeCount = 0;
+        proxyCount = 0;
+        linkFree(0, minX.length);
+    }
+    
+    // Proxy ids live on the objects themselves, so an id may come from another scene's tree
+    public boolean contains(int proxy, GameObject gameObject) {
+        return proxy >= 0 && proxy < objects.length && objects[proxy] == gameObject && gameObject != null;
+    }
+    
+    public GameObject getObject(int proxy) {
+        return objects[proxy];
+    }
+    
+    public float getFatMinX(int proxy) {
+        return minX[proxy];
+    }
+    
+    public float getFatMinY(int proxy) {
+        return minY[proxy];
+    }
+    
+    public float getFatMaxX(int proxy) {
+        return maxX[proxy];
+    }
+    
+    public float getFatMaxY(int proxy) {
+        return maxY[proxy];
+    }
+    
+    public float getMargin() {
+        return margin;
+    }
+    
+    public int getProxyCount() {
+        return proxyCount;
+    }
+    
+    public int getNodeCount() {
+        return nodeCount;
+    }
+    
+    public int getHeight() {
+        return root == NULL_NODE ? 0 : height[root];
+    }
+    
+    public long getReinsertCount() {
+        return reinsertCount;
+    }
+    
+    // Walks the whole tree checking parent links, heights and that every box encloses its children; for debugging
+    public void validate() {
+        if (root == NULL_NODE) return;
+        if (parent[root] != NULL_NODE) {
+            throw new IllegalStateException("Root has a parent");
+        }
+        int leaves = validate(root);
+        if (leaves != proxyCount) {
+            throw new IllegalStateException("Tree holds " + leaves + " leaves but " + proxyCount + " proxies");
+        }
+    }
+    
+    private int validate(int node) {
+        if (isLeaf(node)) {
+            if (height[node] != 0) {
+                throw new IllegalStateException("Leaf " + node + " has height " + height[node]);
+            }
+            return 1;
+        }
+        int c1 = child1[node];
+        int c2 = child2[node];
+        if (parent[c1] != node || parent[c2] != node) {
+            throw new IllegalStateException("Broken parent link under node " + node);
+        }
+        if (height[node] != 1 + Math.max(height[c1], height[c2])) {
+            throw new IllegalStateException("Wrong height at node " + node);
+        }
+        if (minX[node] != Math.min(minX[c1], minX[c2]) || minY[node] != Math.min(minY[c1], minY[c2])
+                || maxX[node] != Math.max(maxX[c1], maxX[c2]) || maxY[node] != Math.max(maxY[c1], maxY[c2])) {
+            throw new IllegalStateException("Box of node " + node + " does not enclose its children");
+        }
+        return validate(c1) + validate(c2);
+    }
+}
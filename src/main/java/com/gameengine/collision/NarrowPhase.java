@@ -0,0 +1,289 @@
+package com.gameengine.collision;
+
+import com.gameengine.components.PhysicsComponent;
+import com.gameengine.core.GameObject;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+public class NarrowPhase {
+    public interface PairTest {
+        float test(int a, int b);
+    }
+    
+    private interface RangeTask {
+        void run(int start, int end, HitBuffer out);
+    }
+    
+    private static class HitBuffer {
+        private int[] a = new int[16];
+        private int[] b = new int[16];
+        private float[] toi = new float[16];
+        private int count;
+        private long tested;
+        
+        void add(int hitA, int hitB, float hitToi) {
+            if (count == a.length) {
+                a = Arrays.copyOf(a, count * 2);
+                b = Arrays.copyOf(b, count * 2);
+                toi = Arrays.copyOf(toi, count * 2);
+            }
+            a[count] = hitA;
+            b[count] = hitB;
+            toi[count] = hitToi;
+            count++;
+        }
+    }
+    
+    private final ExecutorService executor;
+    private final int partitionCount;
+    private final HitBuffer[] partitions;
+    private final List<Future<?>> futures;
+    private int parallelThreshold;
+    private boolean exclusive;
+    private boolean[] claimedA;
+    private boolean[] claimedB;
+    private final HitBuffer resolved;
+    private ColliderSet triggerSource;
+    
+    public NarrowPhase(ExecutorService executor, int partitionCount) {
+        this.executor = executor;
+        this.partitionCount = Math.max(1, partitionCount);
+        this.partitions = new HitBuffer[this.partitionCount];
+        for (int i = 0; i < this.partitionCount; i++) {
+            partitions[i] = new HitBuffer();
+        }
+        this.futures = new ArrayList<>();
+        this.parallelThreshold = 10;
+        this.exclusive = true;
+        this.claimedA = new boolean[16];
+        this.claimedB = new boolean[16];
+        this.resolved = new HitBuffer();
+    }
+    
+    public int detect(CircleSweepSet setA, CircleSweepSet setB) {
+        int hits = detect(setA.size(), setB.size(), false,
+            (a, b) -> setA.isSleeping(a) && setB.isSleeping(b) ? -1 : setA.sweep(a, setB, b));
+        wakeContacts(setA, setB);
+        return hits;
+    }
+    
+    public int detect(CircleSweepSet set) {
+        int hits = detect(set.size(), set.size(), true,
+            (a, b) -> set.isSleeping(a) && set.isSleeping(b) ? -1 : set.sweep(a, set, b));
+        wakeContacts(set, set);
+        return hits;
+    }
+    
+    // Candidate pairs are split by contiguous ranges of A. Each range writes only to its own buffer, and the
+    // buffers are merged in range order, so hits always come out sorted by (a, b) regardless of thread timing.
+    public int detect(int countA, int countB, boolean selfPairs, PairTest test) {
+        triggerSource = null;
+        if (countA == 0 || countB == 0) {
+            run(0, null);
+            return 0;
+        }
+        run(countA, (start, end, out) -> testRange(start, end, countB, selfPairs, test, out));
+        resolve(countA, countB, selfPairs);
+        return resolved.count;
+    }
+    
+    // Pairs are only generated between layers the matrix lets collide: the set is sorted by layer, and each collider
+    // is tested against its own layer's range (if that layer self-collides) and the ranges of higher layers in its
+    // mask. Indices in the results refer to the set's sorted order.
+    public int detect(ColliderSet set, CollisionMatrix matrix) {
+        set.sortByLayer();
+        int count = set.size();
+        run(count, (start, end, out) -> testLayered(start, end, set, matrix, out));
+        triggerSource = set;
+        wakeContacts(set);
+        resolve(count, count, true);
+        return resolved.count;
+    }
+    
+    // Runs on the calling thread once every partition is done, so waking writes to no body a worker still reads.
+    // Every contact counts, including ones exclusive resolution later drops.
+    private void wakeContacts(ColliderSet set) {
+        for (HitBuffer partition : partitions) {
+            for (int i = 0; i < partition.count; i++) {
+                int a = partition.a[i];
+                int b = partition.b[i];
+                if (set.isSleeping(a) != set.isSleeping(b)) {
+                    wake(set.getObject(set.isSleeping(a) ? a : b));
+                }
+            }
+        }
+    }
+    
+    private void wakeContacts(CircleSweepSet setA, CircleSweepSet setB) {
+        for (HitBuffer partition : partitions) {
+            for (int i = 0; i < partition.count; i++) {
+                int a = partition.a[i];
+                int b = partition.b[i];
+                if (setA.isSleeping(a) != setB.isSleeping(b)) {
+                    wake(setA.isSleeping(a) ? setA.getObject(a) : setB.getObject(b));
+                }
+            }
+        }
+    }
+    
+    private static void wake(GameObject gameObject) {
+        PhysicsComponent physics = gameObject.getComponent(PhysicsComponent.class);
+        if (physics != null) {
+            physics.wake();
+        }
+    }
+    
+    private void run(int countA, RangeTask task) {
+        for (HitBuffer partition : partitions) {
+            partition.count = 0;
+            partition.tested = 0;
+        }
+        resolved.count = 0;
+        if (countA == 0) {
+            return;
+        }
+        
+        if (executor == null || partitionCount == 1 || countA < parallelThreshold) {
+            task.run(0, countA, partitions[0]);
+        } else {
+            int batchSize = (countA + partitionCount - 1) / partitionCount;
+            futures.clear();
+            for (int p = 0; p < partitionCount; p++) {
+                final int start = p * batchSize;
+                final int end = Math.min(start + batchSize, countA);
+                if (start >= end) break;
+                final HitBuffer buffer = partitions[p];
+                futures.add(executor.submit(() -> task.run(start, end, buffer)));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }
+            futures.clear();
+        }
+    }
+    
+    private static void testRange(int start, int end, int countB, boolean selfPairs, PairTest test, HitBuffer out) {
+        for (int a = start; a < end; a++) {
+            int first = selfPairs ? a + 1 : 0;
+            for (int b = first; b < countB; b++) {
+                float toi = test.test(a, b);
+                if (toi >= 0) {
+                    out.add(a, b, toi);
+                }
+            }
+            out.tested += Math.max(0, countB - first);
+        }
+    }
+    
+    // A sleeping collider is only tested against the awake prefix of each range, so pairs of sleeping bodies are
+    // never generated. Within its own layer the colliders after a sleeping one are all asleep.
+    private static void testLayered(int start, int end, ColliderSet set, CollisionMatrix matrix, HitBuffer out) {
+        for (int a = start; a < end; a++) {
+            int layer = set.getLayerIndex(a);
+            int mask = matrix.getMask(layer);
+            boolean sleeping = set.isSleeping(a);
+            if ((mask & (1 << layer)) != 0 && !sleeping) {
+                testAgainst(a, a + 1, set.getLayerEnd(layer), set, out);
+            }
+            int higher = layer == CollisionLayer.MAX_LAYERS - 1 ? 0 : mask & (-1 << (layer + 1));
+            while (higher != 0) {
+                int other = Integer.numberOfTrailingZeros(higher);
+                higher &= higher - 1;
+                testAgainst(a, set.getLayerStart(other),
+                    sleeping ? set.getSleepingStart(other) : set.getLayerEnd(other), set, out);
+            }
+        }
+    }
+    
+    private static void testAgainst(int a, int start, int end, ColliderSet set, HitBuffer out) {
+        for (int b = start; b < end; b++) {
+            float toi = set.test(a, b);
+            if (toi >= 0) {
+                out.add(a, b, toi);
+            }
+        }
+        out.tested += Math.max(0, end - start);
+    }
+    
+    private void resolve(int countA, int countB, boolean selfPairs) {
+        int size = selfPairs ? Math.max(countA, countB) : countA;
+        if (claimedA.length < size) {
+            claimedA = new boolean[size];
+        }
+        if (claimedB.length < countB) {
+            claimedB = new boolean[countB];
+        }
+        Arrays.fill(claimedA, 0, size, false);
+        Arrays.fill(claimedB, 0, countB, false);
+        boolean[] claimedSecond = selfPairs ? claimedA : claimedB;
+        
+        for (HitBuffer partition : partitions) {
+            for (int i = 0; i < partition.count; i++) {
+                int a = partition.a[i];
+                int b = partition.b[i];
+                if (!exclusive) {
+                    resolved.add(a, b, partition.toi[i]);
+                    continue;
+                }
+                if (triggerSource != null && (triggerSource.isTrigger(a) || triggerSource.isTrigger(b))) {
+                    resolved.add(a, b, partition.toi[i]);
+                    continue;
+                }
+                if (claimedA[a] || claimedSecond[b]) {
+                    continue;
+                }
+                claimedA[a] = true;
+                claimedSecond[b] = true;
+                resolved.add(a, b, partition.toi[i]);
+            }
+        }
+    }
+    
+    // Pairs handed to the shape test by the last detect call, before any hits were found
+    public long getTestedPairCount() {
+        long tested = 0;
+        for (HitBuffer partition : partitions) {
+            tested += partition.tested;
+        }
+        return tested;
+    }
+    
+    public int getHitCount() {
+        return resolved.count;
+    }
+    
+    public int getHitA(int index) {
+        return resolved.a[index];
+    }
+    
+    public int getHitB(int index) {
+        return resolved.b[index];
+    }
+    
+    public float getHitTimeOfImpact(int index) {
+        return resolved.toi[index];
+    }
+    
+    public boolean isExclusive() {
+        return exclusive;
+    }
+    
+    public void setExclusive(boolean exclusive) {
+        this.exclusive = exclusive;
+    }
+    
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+    
+    public void setParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = Math.max(1, parallelThreshold);
+    }
+}
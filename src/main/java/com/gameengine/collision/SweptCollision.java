@@ -0,0 +1,97 @@
+package com.gameengine.collision;
+
+public final class SweptCollision {
+    public static final float NO_HIT = -1f;
+    
+    private SweptCollision() {
+    }
+    
+    public static boolean overlapCircleCircle(float ax, float ay, float ar, float bx, float by, float br) {
+        float dx = ax - bx;
+        float dy = ay - by;
+        float r = ar + br;
+        return dx * dx + dy * dy < r * r;
+    }
+    
+    public static boolean overlapCircleAABB(float cx, float cy, float r,
+                                            float minX, float minY, float maxX, float maxY) {
+        float nx = Math.max(minX, Math.min(cx, maxX));
+        float ny = Math.max(minY, Math.min(cy, maxY));
+        float dx = cx - nx;
+        float dy = cy - ny;
+        return dx * dx + dy * dy < r * r;
+    }
+    
+    // Positions are at the start of the step, (dx, dy) is the displacement over the step.
+    // Returns the time of impact in [0, 1], or NO_HIT.
+    public static float sweepCircleCircle(float ax, float ay, float ar, float adx, float ady,
+                                          float bx, float by, float br, float bdx, float bdy) {
+        return sweepPointCircle(ax - bx, ay - by, adx - bdx, ady - bdy, 0, 0, ar + br);
+    }
+    
+    public static float sweepCircleAABB(float cx, float cy, float r, float dx, float dy,
+                                        float minX, float minY, float maxX, float maxY) {
+        if (overlapCircleAABB(cx, cy, r, minX, minY, maxX, maxY)) {
+            return 0;
+        }
+        
+        float tEnter = 0;
+        float tExit = 1;
+        if (dx == 0) {
+            if (cx < minX - r || cx > maxX + r) return NO_HIT;
+        } else {
+            float t1 = (minX - r - cx) / dx;
+            float t2 = (maxX + r - cx) / dx;
+            tEnter = Math.max(tEnter, Math.min(t1, t2));
+            tExit = Math.min(tExit, Math.max(t1, t2));
+        }
+        if (dy == 0) {
+            if (cy < minY - r || cy > maxY + r) return NO_HIT;
+        } else {
+            float t1 = (minY - r - cy) / dy;
+            float t2 = (maxY + r - cy) / dy;
+            tEnter = Math.max(tEnter, Math.min(t1, t2));
+            tExit = Math.min(tExit, Math.max(t1, t2));
+        }
+        if (tEnter > tExit) {
+            return NO_HIT;
+        }
+        
+        float hx = cx + dx * tEnter;
+        float hy = cy + dy * tEnter;
+        boolean outsideX = hx < minX || hx > maxX;
+        boolean outsideY = hy < minY || hy > maxY;
+        if (!(outsideX && outsideY)) {
+            return tEnter;
+        }
+        
+        // entry point is in a corner region of the expanded box: the real surface there is a quarter circle
+        float cornerX = hx < minX ? minX : maxX;
+        float cornerY = hy < minY ? minY : maxY;
+        return sweepPointCircle(cx, cy, dx, dy, cornerX, cornerY, r);
+    }
+    
+    private static float sweepPointCircle(float px, float py, float dx, float dy,
+                                          float cx, float cy, float r) {
+        float mx = px - cx;
+        float my = py - cy;
+        float c = mx * mx + my * my - r * r;
+        if (c < 0) {
+            return 0;
+        }
+        float a = dx * dx + dy * dy;
+        if (a == 0) {
+            return NO_HIT;
+        }
+        float b = mx * dx + my * dy;
+        if (b > 0) {
+            return NO_HIT;
+        }
+        float disc = b * b - a * c;
+        if (disc < 0) {
+            return NO_HIT;
+        }
+        float t = (-b - (float) Math.sqrt(disc)) / a;
+        return t >= 0 && t <= 1 ? t : NO_HIT;
+    }
+}
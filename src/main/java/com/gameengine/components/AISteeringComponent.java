@@ -0,0 +1,138 @@
+package com.gameengine.components;
+
+import com.gameengine.core.Component;
+
+public class AISteeringComponent extends Component<AISteeringComponent> {
+    public static final float DEFAULT_WANDER_SPEED = 150f;
+    public static final float DEFAULT_MAX_SPEED = 150f;
+    public static final float DEFAULT_LERP_FACTOR = 0.1f;
+    public static final float DEFAULT_MIN_RETARGET_TIME = 2.0f;
+    public static final float DEFAULT_RETARGET_RANGE = 2.0f;
+    
+    private float targetVelocityX;
+    private float targetVelocityY;
+    private float timer;
+    private float nextRetargetTime;
+    private float wanderSpeed;
+    private float maxSpeed;
+    private float lerpFactor;
+    private long seed;
+    
+    public AISteeringComponent() {
+        this(System.nanoTime());
+    }
+    
+    public AISteeringComponent(long seed) {
+        this.seed = seed == 0 ? 0x9E3779B97F4A7C15L : seed;
+        this.wanderSpeed = DEFAULT_WANDER_SPEED;
+        this.maxSpeed = DEFAULT_MAX_SPEED;
+        this.lerpFactor = DEFAULT_LERP_FACTOR;
+        retarget();
+    }
+    
+    @Override
+    public void initialize() {
+    }
+    
+    @Override
+    public void update(float deltaTime) {
+    }
+    
+    @Override
+    public void render() {
+    }
+    
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+    
+    // Decisions may be time-sliced, so elapsed is the time since this agent last decided rather than one frame
+    public void decide(float elapsed) {
+        timer += elapsed;
+        if (timer >= nextRetargetTime) {
+            retarget();
+        }
+    }
+    
+    // deltaTime is the time since this agent last steered; the blend is scaled to it so an agent steered every few
+    // frames approaches its target at the same rate as one steered every frame at 60 FPS
+    public void steer(PhysicsComponent physics, float deltaTime) {
+        float blend = 1f - (float) Math.pow(1f - lerpFactor, deltaTime * 60f);
+        float vx = physics.getVelocityX();
+        float vy = physics.getVelocityY();
+        vx += (targetVelocityX - vx) * blend;
+        vy += (targetVelocityY - vy) * blend;
+        
+        float speedSq = vx * vx + vy * vy;
+        if (speedSq > maxSpeed * maxSpeed) {
+            float scale = maxSpeed / (float) Math.sqrt(speedSq);
+            vx *= scale;
+            vy *= scale;
+        }
+        
+        physics.setVelocity(vx, vy);
+    }
+    
+    public void retarget() {
+        targetVelocityX = (nextFloat() - 0.5f) * wanderSpeed;
+        targetVelocityY = (nextFloat() - 0.5f) * wanderSpeed;
+        nextRetargetTime = DEFAULT_MIN_RETARGET_TIME + nextFloat() * DEFAULT_RETARGET_RANGE;
+        timer = 0;
+    }
+    
+    private float nextFloat() {
+        // xorshift64* keeps the per-agent random state in a primitive so agents can be steered on any thread
+        long x = seed;
+        x ^= x >>> 12;
+        x ^= x << 25;
+        x ^= x >>> 27;
+        seed = x;
+        return ((x * 0x2545F4914F6CDD1DL) >>> 40) / (float) (1 << 24);
+    }
+    
+    public float getTargetVelocityX() {
+        return targetVelocityX;
+    }
+    
+    public float getTargetVelocityY() {
+        return targetVelocityY;
+    }
+    
+    public void setTargetVelocity(float x, float y) {
+        this.targetVelocityX = x;
+        this.targetVelocityY = y;
+    }
+    
+    public float getTimer() {
+        return timer;
+    }
+    
+    public float getNextRetargetTime() {
+        return nextRetargetTime;
+    }
+    
+    public float getWanderSpeed() {
+        return wanderSpeed;
+    }
+    
+    public void setWanderSpeed(float wanderSpeed) {
+        this.wanderSpeed = wanderSpeed;
+    }
+    
+    public float getMaxSpeed() {
+        return maxSpeed;
+    }
+    
+    public void setMaxSpeed(float maxSpeed) {
+        this.maxSpeed = Math.max(0, maxSpeed);
+    }
+    
+    public float getLerpFactor() {
+        return lerpFactor;
+    }
+    
+    public void setLerpFactor(float lerpFactor) {
+        this.lerpFactor = Math.max(0, Math.min(1, lerpFactor));
+    }
+}
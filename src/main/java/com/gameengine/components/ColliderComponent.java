@@ -0,0 +1,137 @@
+package com.gameengine.components;
+
+import com.gameengine.collision.CollisionLayer;
+import com.gameengine.core.Component;
+import com.gameengine.math.Vector2;
+
+public class ColliderComponent extends Component<ColliderComponent> {
+    private Shape shape;
+    private float radius;
+    private float halfWidth;
+    private float halfHeight;
+    private final Vector2 offset;
+    private boolean trigger;
+    private CollisionLayer layer;
+    
+    public enum Shape {
+        CIRCLE,
+        AABB
+    }
+    
+    public ColliderComponent(float radius) {
+        this.offset = new Vector2();
+        this.layer = CollisionLayer.DEFAULT;
+        setCircle(radius);
+    }
+    
+    public ColliderComponent(float width, float height) {
+        this.offset = new Vector2();
+        this.layer = CollisionLayer.DEFAULT;
+        setBox(width, height);
+    }
+    
+    public ColliderComponent(float radius, CollisionLayer layer) {
+        this(radius);
+        setLayer(layer);
+    }
+    
+    public ColliderComponent(float width, float height, CollisionLayer layer) {
+        this(width, height);
+        setLayer(layer);
+    }
+    
+    @Override
+    public void initialize() {
+    }
+    
+    @Override
+    public void update(float deltaTime) {
+    }
+    
+    @Override
+    public void render() {
+    }
+    
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+    
+    public void setCircle(float radius) {
+        if (radius < 0) {
+            throw new IllegalArgumentException("Collider radius must not be negative: " + radius);
+        }
+        this.shape = Shape.CIRCLE;
+        this.radius = radius;
+        this.halfWidth = radius;
+        this.halfHeight = radius;
+    }
+    
+    // Box centered on the owner's position plus the offset; it does not rotate with the transform
+    public void setBox(float width, float height) {
+        if (width < 0 || height < 0) {
+            throw new IllegalArgumentException("Collider size must not be negative: " + width + "x" + height);
+        }
+        this.shape = Shape.AABB;
+        this.halfWidth = width / 2;
+        this.halfHeight = height / 2;
+        this.radius = (float) Math.sqrt(halfWidth * halfWidth + halfHeight * halfHeight);
+    }
+    
+    public Shape getShape() {
+        return shape;
+    }
+    
+    public float getRadius() {
+        return radius;
+    }
+    
+    public float getHalfWidth() {
+        return halfWidth;
+    }
+    
+    public float getHalfHeight() {
+        return halfHeight;
+    }
+    
+    public Vector2 getOffset() {
+        return new Vector2(offset);
+    }
+    
+    public float getOffsetX() {
+        return offset.x;
+    }
+    
+    public float getOffsetY() {
+        return offset.y;
+    }
+    
+    public void setOffset(float x, float y) {
+        offset.x = x;
+        offset.y = y;
+    }
+    
+    public void setOffset(Vector2 offset) {
+        setOffset(offset.x, offset.y);
+    }
+    
+    // Triggers are reported like any other contact, but never consume a collider in exclusive narrow phase mode
+    public boolean isTrigger() {
+        return trigger;
+    }
+    
+    public void setTrigger(boolean trigger) {
+        this.trigger = trigger;
+    }
+    
+    public CollisionLayer getLayer() {
+        return layer;
+    }
+    
+    public void setLayer(CollisionLayer layer) {
+        if (layer == null) {
+            throw new IllegalArgumentException("Collision layer must not be null");
+        }
+        this.layer = layer;
+    }
+}
@@ -4,12 +4,21 @@ import com.gameengine.core.Component;
 import com.gameengine.math.Vector2;
 
 public class PhysicsComponent extends Component<PhysicsComponent> {
+    public static final float DEFAULT_SLEEP_THRESHOLD = 1.0f;
+    public static final int DEFAULT_SLEEP_FRAMES = 30;
+    
     private Vector2 velocity;
     private Vector2 acceleration;
     private float mass;
     private float friction;
     private boolean useGravity;
     private Vector2 gravity;
+    private boolean batchIntegrated;
+    private boolean allowSleep;
+    private boolean sleeping;
+    private int sleepCounter;
+    private float sleepThreshold;
+    private int sleepFrames;
     
     public PhysicsComponent() {
         this.velocity = new Vector2();
@@ -18,6 +27,9 @@ public class PhysicsComponent extends Component<PhysicsComponent> {
         this.friction = 0.9f;
         this.useGravity = false;
         this.gravity = new Vector2(0, 9.8f);
+        this.allowSleep = true;
+        this.sleepThreshold = DEFAULT_SLEEP_THRESHOLD;
+        this.sleepFrames = DEFAULT_SLEEP_FRAMES;
     }
     
     public PhysicsComponent(float mass) {
@@ -32,49 +44,134 @@ public class PhysicsComponent extends Component<PhysicsComponent> {
     @Override
     public void update(float deltaTime) {
         if (!enabled) return;
+        if (batchIntegrated) {
+            batchIntegrated = false;
+            return;
+        }
+        if (sleeping) return;
         
         TransformComponent transform = owner.getComponent(TransformComponent.class);
         if (transform == null) return;
         
+        // In place: velocity and acceleration are never handed out by reference, and this runs for every body
         if (useGravity) {
-            acceleration = acceleration.add(gravity);
+            acceleration.x += gravity.x;
+            acceleration.y += gravity.y;
         }
         
-        velocity = velocity.add(acceleration.multiply(deltaTime));
-        velocity = velocity.multiply(friction);
+        velocity.x = (velocity.x + acceleration.x * deltaTime) * friction;
+        velocity.y = (velocity.y + acceleration.y * deltaTime) * friction;
+        
+        transform.translate(velocity.x * deltaTime, velocity.y * deltaTime);
         
-        Vector2 deltaPosition = velocity.multiply(deltaTime);
-        transform.translate(deltaPosition);
+        updateSleepState(acceleration.x, acceleration.y);
+        acceleration.x = 0;
+        acceleration.y = 0;
+    }
+    
+    public void updateSleepState(float accelerationX, float accelerationY) {
+        if (!allowSleep) return;
         
-        acceleration = new Vector2();
+        float thresholdSq = sleepThreshold * sleepThreshold;
+        float speedSq = velocity.x * velocity.x + velocity.y * velocity.y;
+        float accelSq = accelerationX * accelerationX + accelerationY * accelerationY;
+        if (speedSq < thresholdSq && accelSq < thresholdSq) {
+            sleepCounter++;
+            if (sleepCounter >= sleepFrames) {
+                sleep();
+            }
+        } else {
+            sleepCounter = 0;
+        }
+    }
+    
+    public void sleep() {
+        sleeping = true;
+        sleepCounter = 0;
+        velocity.x = 0;
+        velocity.y = 0;
+        acceleration.x = 0;
+        acceleration.y = 0;
+    }
+    
+    public void wake() {
+        sleeping = false;
+        sleepCounter = 0;
+    }
+    
+    public boolean isSleeping() {
+        return sleeping;
+    }
+    
+    public boolean isAllowSleep() {
+        return allowSleep;
+    }
+    
+    public void setAllowSleep(boolean allowSleep) {
+        this.allowSleep = allowSleep;
+        if (!allowSleep) {
+            wake();
+        }
+    }
+    
+    public float getSleepThreshold() {
+        return sleepThreshold;
+    }
+    
+    public void setSleepThreshold(float sleepThreshold) {
+        this.sleepThreshold = Math.max(0, sleepThreshold);
+    }
+    
+    public int getSleepFrames() {
+        return sleepFrames;
+    }
+    
+    public void setSleepFrames(int sleepFrames) {
+        this.sleepFrames = Math.max(1, sleepFrames);
     }
     
     @Override
     public void render() {
     }
     
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+    
     public void applyForce(Vector2 force) {
         if (mass > 0) {
             acceleration = acceleration.add(force.multiply(1.0f / mass));
+            wakeIfNonZero(force.x, force.y);
         }
     }
     
     public void applyImpulse(Vector2 impulse) {
         if (mass > 0) {
             velocity = velocity.add(impulse.multiply(1.0f / mass));
+            wakeIfNonZero(impulse.x, impulse.y);
         }
     }
     
     public void setVelocity(Vector2 velocity) {
-        this.velocity = new Vector2(velocity);
+        setVelocity(velocity.x, velocity.y);
     }
     
     public void setVelocity(float x, float y) {
-        this.velocity = new Vector2(x, y);
+        velocity.x = x;
+        velocity.y = y;
+        wakeIfNonZero(x, y);
     }
     
     public void addVelocity(Vector2 delta) {
         this.velocity = velocity.add(delta);
+        wakeIfNonZero(delta.x, delta.y);
+    }
+    
+    private void wakeIfNonZero(float x, float y) {
+        if (sleeping && (x != 0 || y != 0)) {
+            wake();
+        }
     }
     
     public void setGravity(Vector2 gravity) {
@@ -83,6 +180,9 @@ public class PhysicsComponent extends Component<PhysicsComponent> {
     
     public void setUseGravity(boolean useGravity) {
         this.useGravity = useGravity;
+        if (useGravity) {
+            wake();
+        }
     }
     
     public void setFriction(float friction) {
@@ -97,10 +197,39 @@ public class PhysicsComponent extends Component<PhysicsComponent> {
         return new Vector2(velocity);
     }
     
+    public float getVelocityX() {
+        return velocity.x;
+    }
+    
+    public float getVelocityY() {
+        return velocity.y;
+    }
+    
     public Vector2 getAcceleration() {
         return new Vector2(acceleration);
     }
     
+    public float getNetAccelerationX() {
+        return useGravity ? acceleration.x + gravity.x : acceleration.x;
+    }
+    
+    public float getNetAccelerationY() {
+        return useGravity ? acceleration.y + gravity.y : acceleration.y;
+    }
+    
+    public void clearAcceleration() {
+        acceleration.x = 0;
+        acceleration.y = 0;
+    }
+    
+    public boolean isBatchIntegrated() {
+        return batchIntegrated;
+    }
+    
+    public void setBatchIntegrated(boolean batchIntegrated) {
+        this.batchIntegrated = batchIntegrated;
+    }
+    
     public float getMass() {
         return mass;
     }
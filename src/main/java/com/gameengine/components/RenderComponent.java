@@ -1,6 +1,7 @@
 package com.gameengine.components;
 
 import com.gameengine.core.Component;
+import com.gameengine.graphics.RenderCommandList;
 import com.gameengine.graphics.Renderer;
 import com.gameengine.math.Vector2;
 
@@ -10,6 +11,8 @@ public class RenderComponent extends Component<RenderComponent> {
     private Vector2 size;
     private Color color;
     private boolean visible;
+    private boolean batchRendered;
+    private int sortLayer;
     
     public enum RenderType {
         RECTANGLE,
@@ -54,8 +57,17 @@ public class RenderComponent extends Component<RenderComponent> {
     public void update(float deltaTime) {
     }
     
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+    
     @Override
     public void render() {
+        if (batchRendered) {
+            batchRendered = false;
+            return;
+        }
         if (!visible || renderer == null) {
             return;
         }
@@ -65,29 +77,52 @@ public class RenderComponent extends Component<RenderComponent> {
             return;
         }
         
-        Vector2 position = transform.getPosition();
+        float x = transform.getX();
+        float y = transform.getY();
         
         switch (renderType) {
             case RECTANGLE:
-                renderer.drawRect(position.x, position.y, size.x, size.y, 
+                renderer.drawRect(x, y, size.x, size.y, 
                                 color.r, color.g, color.b, color.a);
                 break;
             case CIRCLE:
-                renderer.drawCircle(position.x + size.x/2, position.y + size.y/2, 
+                renderer.drawCircle(x + size.x/2, y + size.y/2, 
                                   size.x/2, 16, color.r, color.g, color.b, color.a);
                 break;
             case LINE:
-                renderer.drawLine(position.x, position.y, 
-                                position.x + size.x, position.y + size.y,
+                renderer.drawLine(x, y, 
+                                x + size.x, y + size.y,
                                 color.r, color.g, color.b, color.a);
                 break;
         }
     }
     
+    // Same shapes as render(), appended to a command list instead of drawn; safe to call from worker threads
+    public void record(RenderCommandList commands, TransformComponent transform) {
+        float x = transform.getX();
+        float y = transform.getY();
+        switch (renderType) {
+            case RECTANGLE:
+                commands.addRect(sortLayer, x, y, size.x, size.y, color.r, color.g, color.b, color.a);
+                break;
+            case CIRCLE:
+                commands.addCircle(sortLayer, x + size.x / 2, y + size.y / 2, size.x / 2,
+                    color.r, color.g, color.b, color.a);
+                break;
+            case LINE:
+                commands.addLine(sortLayer, x, y, x + size.x, y + size.y, color.r, color.g, color.b, color.a);
+                break;
+        }
+    }
+    
     public void setRenderer(Renderer renderer) {
         this.renderer = renderer;
     }
     
+    public Renderer getRenderer() {
+        return renderer;
+    }
+    
     public void setColor(Color color) {
         this.color = color;
     }
@@ -112,6 +147,14 @@ public class RenderComponent extends Component<RenderComponent> {
         return new Vector2(size);
     }
     
+    public float getWidth() {
+        return size.x;
+    }
+    
+    public float getHeight() {
+        return size.y;
+    }
+    
     public Color getColor() {
         return color;
     }
@@ -119,4 +162,21 @@ public class RenderComponent extends Component<RenderComponent> {
     public boolean isVisible() {
         return visible;
     }
+    
+    // Recorded commands are drawn by ascending layer; within a layer, in scene order
+    public int getSortLayer() {
+        return sortLayer;
+    }
+    
+    public void setSortLayer(int sortLayer) {
+        this.sortLayer = sortLayer;
+    }
+    
+    public boolean isBatchRendered() {
+        return batchRendered;
+    }
+    
+    public void setBatchRendered(boolean batchRendered) {
+        this.batchRendered = batchRendered;
+    }
 }
@@ -37,6 +37,11 @@ public class TransformComponent extends Component<TransformComponent> {
     public void render() {
     }
     
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+    
     public void moveTo(Vector2 newPosition) {
         this.position = new Vector2(newPosition);
     }
@@ -45,6 +50,11 @@ public class TransformComponent extends Component<TransformComponent> {
         this.position = position.add(delta);
     }
     
+    public void translate(float dx, float dy) {
+        position.x += dx;
+        position.y += dy;
+    }
+    
     public void rotate(float angle) {
         this.rotation += angle;
     }
@@ -69,10 +79,31 @@ public class TransformComponent extends Component<TransformComponent> {
         this.position = new Vector2(position);
     }
     
+    public void setPosition(float x, float y) {
+        position.x = x;
+        position.y = y;
+    }
+    
+    public float getX() {
+        return position.x;
+    }
+    
+    public float getY() {
+        return position.y;
+    }
+    
     public Vector2 getScale() {
         return new Vector2(scale);
     }
     
+    public float getScaleX() {
+        return scale.x;
+    }
+    
+    public float getScaleY() {
+        return scale.y;
+    }
+    
     public float getRotation() {
         return rotation;
     }
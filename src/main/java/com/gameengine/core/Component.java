@@ -20,6 +20,10 @@ public abstract class Component<T extends Component<T>> {
         this.enabled = false;
     }
     
+    public boolean isThreadSafe() {
+        return false;
+    }
+    
     @SuppressWarnings("unchecked")
     public Class<T> getComponentType() {
         return (Class<T>) this.getClass();
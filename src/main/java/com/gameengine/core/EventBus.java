@@ -0,0 +1,147 @@
+package com.gameengine.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+public class EventBus {
+    public static final int DEFAULT_CAPACITY = 4096;
+    
+    private final Object[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail;
+    private long head;
+    private final ConcurrentLinkedQueue<Object> overflow;
+    private final AtomicLong overflowCount;
+    private final Map<Class<?>, List<Consumer<Object>>> listeners;
+    private final List<Object> batch;
+    private long dispatchedCount;
+    
+    public EventBus() {
+        this(DEFAULT_CAPACITY);
+    }
+    
+    public EventBus(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Event bus capacity must be positive: " + capacity);
+        }
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new Object[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.mask = size - 1;
+        this.tail = new AtomicLong();
+        this.overflow = new ConcurrentLinkedQueue<>();
+        this.overflowCount = new AtomicLong();
+        this.listeners = new ConcurrentHashMap<>();
+        this.batch = new ArrayList<>();
+    }
+    
+    @SuppressWarnings("unchecked")
+    public <E> void subscribe(Class<E> type, Consumer<? super E> listener) {
+        listeners.computeIfAbsent(type, t -> new CopyOnWriteArrayList<>()).add((Consumer<Object>) listener);
+    }
+    
+    public <E> void unsubscribe(Class<E> type, Consumer<? super E> listener) {
+        List<Consumer<Object>> list = listeners.get(type);
+        if (list != null) {
+            list.remove(listener);
+        }
+    }
+    
+    // Safe from any thread and never blocks: a slot is claimed with a CAS on the tail and handed over by writing
+    // its sequence number. When the ring is full the event goes to an unbounded overflow queue rather than being
+    // dropped, which only costs ordering relative to events still in the ring.
+    public void publish(Object event) {
+        if (event == null) {
+            throw new IllegalArgumentException("Event must not be null");
+        }
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots[index] = event;
+                    sequences.set(index, position + 1);
+                    return;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                overflowCount.incrementAndGet();
+                overflow.add(event);
+                return;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+    
+    // Single consumer. Delivers everything published before the call in publish order, exact event class only;
+    // events published by listeners during dispatch wait for the next call.
+    public void dispatch() {
+        long end = tail.get();
+        while (head < end) {
+            int index = (int) (head & mask);
+            if (sequences.get(index) != head + 1) break;
+            batch.add(slots[index]);
+            slots[index] = null;
+            sequences.set(index, head + slots.length);
+            head++;
+        }
+        for (int i = overflow.size(); i > 0; i--) {
+            Object event = overflow.poll();
+            if (event == null) break;
+            batch.add(event);
+        }
+        if (batch.isEmpty()) return;
+        
+        Class<?> lastType = null;
+        List<Consumer<Object>> targets = null;
+        for (int i = 0; i < batch.size(); i++) {
+            Object event = batch.get(i);
+            if (event.getClass() != lastType) {
+                lastType = event.getClass();
+                targets = listeners.get(lastType);
+            }
+            if (targets == null) continue;
+            for (Consumer<Object> listener : targets) {
+                try {
+                    listener.accept(event);
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+        dispatchedCount += batch.size();
+        batch.clear();
+    }
+    
+    public int getCapacity() {
+        return slots.length;
+    }
+    
+    public long getPendingCount() {
+        return tail.get() - head + overflow.size();
+    }
+    
+    public long getOverflowCount() {
+        return overflowCount.get();
+    }
+    
+    public long getDispatchedCount() {
+        return dispatchedCount;
+    }
+}
@@ -2,6 +2,10 @@ package com.gameengine.core;
 
 import com.gameengine.graphics.Renderer;
 import com.gameengine.input.InputManager;
+import com.gameengine.math.FrameArena;
+import com.gameengine.metrics.Histogram;
+import com.gameengine.metrics.Meter;
+import com.gameengine.metrics.MetricsRegistry;
 import com.gameengine.scene.Scene;
 import javax.swing.Timer;
 
@@ -15,6 +19,9 @@ public class GameEngine {
     private long lastTime;
     private String title;
     private Timer gameTimer;
+    private MetricsRegistry metrics;
+    private Histogram frameTimer;
+    private Meter frameMeter;
     
     public GameEngine(int width, int height, String title) {
         this.title = title;
@@ -44,8 +51,14 @@ public class GameEngine {
         
         gameTimer = new Timer((int) (1000 / targetFPS), e -> {
             if (running) {
+                long start = System.nanoTime();
                 update();
                 render();
+                FrameArena.endFrame();
+                if (frameTimer != null) {
+                    frameTimer.record(System.nanoTime() - start);
+                    frameMeter.mark();
+                }
             }
         });
         
@@ -112,6 +125,32 @@ public class GameEngine {
         renderer.cleanup();
     }
     
+    // Registers com.gameengine:type=Engine,name=<title> with frame time percentiles, frame rate and draw commands
+    public MetricsRegistry enableMetrics() {
+        if (metrics != null) return metrics;
+        MetricsRegistry registry = new MetricsRegistry("Engine", title);
+        Histogram timer = registry.timer("FrameTime");
+        Meter meter = registry.meter("Frames");
+        registry.gauge("DrawCommands", renderer::getLastFrameDrawCount);
+        registry.register();
+        metrics = registry;
+        frameMeter = meter;
+        frameTimer = timer;
+        return registry;
+    }
+    
+    public void disableMetrics() {
+        if (metrics == null) return;
+        metrics.unregister();
+        metrics = null;
+        frameTimer = null;
+        frameMeter = null;
+    }
+    
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+    
     public Renderer getRenderer() {
         return renderer;
     }
@@ -1,45 +1,163 @@
 package com.gameengine.core;
 
+import com.gameengine.ai.AIScheduler;
+import com.gameengine.collision.ColliderSet;
+import com.gameengine.collision.CollisionLayer;
+import com.gameengine.collision.CollisionMatrix;
+import com.gameengine.collision.NarrowPhase;
+import com.gameengine.components.AISteeringComponent;
+import com.gameengine.components.ColliderComponent;
 import com.gameengine.components.TransformComponent;
 import com.gameengine.components.PhysicsComponent;
 import com.gameengine.input.InputManager;
+import com.gameengine.math.FrameArena;
 import com.gameengine.math.Vector2;
+import com.gameengine.metrics.Histogram;
+import com.gameengine.metrics.MetricsRegistry;
+import com.gameengine.physics.BodyBuffer;
+import com.gameengine.physics.PhysicsIntegrator;
+import com.gameengine.physics.PhysicsIntegrators;
 import com.gameengine.scene.Scene;
 
 import java.util.List;
 import java.util.Random;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.ArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
 
 public class GameLogic {
+    public static final float DEFAULT_WORLD_WIDTH = 1920;
+    public static final float DEFAULT_WORLD_HEIGHT = 1080;
+    public static final float AVOIDANCE_RADIUS = 80;
+    public static final CollisionLayer PLAYER_LAYER = CollisionLayer.of("Player");
+    public static final CollisionLayer AI_LAYER = CollisionLayer.of("AIPlayer");
+    public static final Tag AI_TAG = Tag.of("AIPlayer");
+    
     private Scene scene;
     private InputManager inputManager;
     private Random random;
     private boolean gameOver;
     private GameEngine gameEngine;
-    private Map<GameObject, Vector2> aiTargetVelocities;
-    private Map<GameObject, Float> aiTargetUpdateTimers;
     private ExecutorService physicsExecutor;
+    private final boolean ownsExecutor;
+    private final List<GameObject> aiPlayers;
+    private PhysicsIntegrator physicsIntegrator;
+    private final BodyBuffer boundsBuffer;
+    private final AIScheduler aiScheduler;
+    private final ColliderSet contactSet;
+    private final CollisionMatrix contactMatrix;
+    private final NarrowPhase contactPhase;
+    private final List<GameObject> nearby;
+    private MetricsRegistry metrics;
+    private volatile Histogram taskWaitTimer;
+    private float worldMinX;
+    private float worldMinY;
+    private float worldMaxX;
+    private float worldMaxY;
+    
+    public static final class GameOverEvent {
+        private final GameObject player;
+        private final GameObject collider;
+        
+        public GameOverEvent(GameObject player, GameObject collider) {
+            this.player = player;
+            this.collider = collider;
+        }
+        
+        public GameObject getPlayer() {
+            return player;
+        }
+        
+        public GameObject getCollider() {
+            return collider;
+        }
+    }
     
     public GameLogic(Scene scene) {
+        this(scene, InputManager.getInstance(), new Random(),
+            Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors() - 1)), true);
+    }
+    
+    public GameLogic(Scene scene, InputManager inputManager, Random random) {
+        this(scene, inputManager, random, null, false);
+    }
+    
+    public GameLogic(Scene scene, InputManager inputManager, Random random, ExecutorService physicsExecutor) {
+        this(scene, inputManager, random, physicsExecutor, false);
+    }
+    
+    private GameLogic(Scene scene, InputManager inputManager, Random random, ExecutorService physicsExecutor,
+                      boolean ownsExecutor) {
         this.scene = scene;
-        this.inputManager = InputManager.getInstance();
-        this.random = new Random();
+        this.inputManager = inputManager;
+        this.random = random;
         this.gameOver = false;
-        this.aiTargetVelocities = new HashMap<>();
-        this.aiTargetUpdateTimers = new HashMap<>();
-        int threadCount = Math.max(2, Runtime.getRuntime().availableProcessors() - 1);
-        this.physicsExecutor = Executors.newFixedThreadPool(threadCount);
+        this.aiPlayers = new ArrayList<>();
+        this.physicsIntegrator = PhysicsIntegrators.getDefault();
+        this.boundsBuffer = new BodyBuffer();
+        this.aiScheduler = new AIScheduler();
+        this.contactSet = new ColliderSet();
+        this.contactMatrix = new CollisionMatrix().setCollides(AI_LAYER, AI_LAYER, false);
+        this.contactPhase = new NarrowPhase(null, 1);
+        this.nearby = new ArrayList<>();
+        this.physicsExecutor = physicsExecutor;
+        this.ownsExecutor = ownsExecutor;
+        setWorldBounds(0, 0, DEFAULT_WORLD_WIDTH, DEFAULT_WORLD_HEIGHT);
+        if (scene != null) {
+            scene.getEventBus().subscribe(GameOverEvent.class, this::onGameOver);
+        }
+    }
+    
+    private void onGameOver(GameOverEvent event) {
+        if (gameEngine != null) {
+            gameEngine.stop();
+        }
+        System.out.println("游戏结束！玩家碰撞到其他玩家！");
+    }
+    
+    private Future<?> submitTask(Runnable task) {
+        Histogram timer = taskWaitTimer;
+        if (timer == null) {
+            return physicsExecutor.submit(task);
+        }
+        long submitted = System.nanoTime();
+        return physicsExecutor.submit(() -> {
+            timer.record(System.nanoTime() - submitted);
+            task.run();
+        });
+    }
+    
+    // Registers com.gameengine:type=GameLogic,name=<name> with the worker pool's queue depth and active threads
+    // and how long submitted batches wait before a worker picks them up
+    public MetricsRegistry enableMetrics(String name) {
+        if (metrics != null) return metrics;
+        MetricsRegistry registry = new MetricsRegistry("GameLogic", name);
+        registry.gauge("ExecutorQueueDepth", () -> physicsExecutor instanceof ThreadPoolExecutor
+            ? ((ThreadPoolExecutor) physicsExecutor).getQueue().size() : 0);
+        registry.gauge("ExecutorActiveThreads", () -> physicsExecutor instanceof ThreadPoolExecutor
+            ? ((ThreadPoolExecutor) physicsExecutor).getActiveCount() : 0);
+        registry.gauge("AIPlayers", () -> aiScheduler.size());
+        Histogram timer = registry.timer("TaskWait");
+        registry.register();
+        metrics = registry;
+        taskWaitTimer = timer;
+        return registry;
+    }
+    
+    public MetricsRegistry getMetrics() {
+        return metrics;
     }
     
     public void cleanup() {
-        if (physicsExecutor != null && !physicsExecutor.isShutdown()) {
+        if (metrics != null) {
+            metrics.unregister();
+            metrics = null;
+            taskWaitTimer = null;
+        }
+        if (ownsExecutor && physicsExecutor != null && !physicsExecutor.isShutdown()) {
             physicsExecutor.shutdown();
             try {
                 if (!physicsExecutor.awaitTermination(1, TimeUnit.SECONDS)) {
@@ -61,8 +179,10 @@ public class GameLogic {
     }
     
     private GameObject getUserPlayer() {
-        for (GameObject obj : scene.getGameObjects()) {
-            if (obj.getName().equals("Player") && obj.hasComponent(PhysicsComponent.class)) {
+        List<GameObject> players = scene.findByName("Player");
+        for (int i = 0; i < players.size(); i++) {
+            GameObject obj = players.get(i);
+            if (obj.hasComponent(PhysicsComponent.class)) {
                 return obj;
             }
         }
@@ -70,10 +190,15 @@ public class GameLogic {
     }
     
     private List<GameObject> getAIPlayers() {
-        return scene.getGameObjects().stream()
-            .filter(obj -> obj.getName().equals("AIPlayer"))
-            .filter(obj -> obj.isActive())
-            .collect(Collectors.toList());
+        aiPlayers.clear();
+        List<GameObject> candidates = scene.findByTag(AI_TAG);
+        for (int i = 0; i < candidates.size(); i++) {
+            GameObject obj = candidates.get(i);
+            if (obj.isActive()) {
+                aiPlayers.add(obj);
+            }
+        }
+        return aiPlayers;
     }
     
     public void handlePlayerInput(float deltaTime) {
@@ -87,7 +212,8 @@ public class GameLogic {
         
         if (transform == null || physics == null) return;
         
-        Vector2 movement = new Vector2();
+        FrameArena arena = FrameArena.current();
+        Vector2 movement = arena.vector();
         
         if (inputManager.isKeyPressed(87) || inputManager.isKeyPressed(38)) {
             movement.y -= 1;
@@ -103,88 +229,66 @@ public class GameLogic {
         }
         
         if (movement.magnitude() > 0) {
-            movement = movement.normalize().multiply(200);
+            movement = arena.scale(arena.normalize(movement), 200);
             physics.setVelocity(movement);
         }
         
-        Vector2 pos = transform.getPosition();
-        if (pos.x < 0) pos.x = 0;
-        if (pos.y < 0) pos.y = 0;
-        if (pos.x > 1920 - 20) pos.x = 1920 - 20;
-        if (pos.y > 1080 - 20) pos.y = 1080 - 20;
-        transform.setPosition(pos);
+        Vector2 pos = arena.vector(transform.getX(), transform.getY());
+        if (pos.x < worldMinX) pos.x = worldMinX;
+        if (pos.y < worldMinY) pos.y = worldMinY;
+        if (pos.x > worldMaxX - 20) pos.x = worldMaxX - 20;
+        if (pos.y > worldMaxY - 20) pos.y = worldMaxY - 20;
+        transform.setPosition(pos.x, pos.y);
     }
     
+    // AI work is time-sliced by the scheduler: only agents that are due this frame retarget and steer, using the
+    // time since their last decision. AI bodies run without friction, so an agent that is skipped keeps the
+    // velocity it last chose and costs nothing until it is due again.
     public void handleAIPlayerMovement(float deltaTime) {
         if (gameOver) return;
         
         List<GameObject> aiPlayers = getAIPlayers();
+        if (aiPlayers.isEmpty()) return;
         
         for (GameObject aiPlayer : aiPlayers) {
-            PhysicsComponent physics = aiPlayer.getComponent(PhysicsComponent.class);
-            if (physics == null) continue;
-            
-            if (!aiTargetVelocities.containsKey(aiPlayer)) {
-                Vector2 initialTarget = new Vector2(
-                    (random.nextFloat() - 0.5f) * 150,
-                    (random.nextFloat() - 0.5f) * 150
-                );
-                aiTargetVelocities.put(aiPlayer, initialTarget);
-                aiTargetUpdateTimers.put(aiPlayer, 0f);
-            }
-            
-            float timer = aiTargetUpdateTimers.get(aiPlayer) + deltaTime;
-            aiTargetUpdateTimers.put(aiPlayer, timer);
-            
-            if (timer >= (2.0f + random.nextFloat() * 2.0f)) {
-                Vector2 newTarget = new Vector2(
-                    (random.nextFloat() - 0.5f) * 150,
-                    (random.nextFloat() - 0.5f) * 150
-                );
-                aiTargetVelocities.put(aiPlayer, newTarget);
-                aiTargetUpdateTimers.put(aiPlayer, 0f);
-            }
-            
-            Vector2 currentVelocity = physics.getVelocity();
-            Vector2 targetVelocity = aiTargetVelocities.get(aiPlayer);
-            
-            float lerpFactor = 0.1f;
-            Vector2 newVelocity = new Vector2(
-                currentVelocity.x + (targetVelocity.x - currentVelocity.x) * lerpFactor,
-                currentVelocity.y + (targetVelocity.y - currentVelocity.y) * lerpFactor
-            );
-            
-            float maxSpeed = 150f;
-            if (newVelocity.magnitude() > maxSpeed) {
-                newVelocity = newVelocity.normalize().multiply(maxSpeed);
+            if (!aiPlayer.hasComponent(AISteeringComponent.class)) {
+                aiPlayer.addComponent(new AISteeringComponent(random.nextLong()));
+                PhysicsComponent physics = aiPlayer.getComponent(PhysicsComponent.class);
+                if (physics != null) {
+                    physics.setFriction(1.0f);
+                }
             }
-            
-            physics.setVelocity(newVelocity);
+            aiScheduler.add(aiPlayer);
         }
-    }
-    
-    public void updatePhysics() {
-        if (gameOver) return;
         
-        List<PhysicsComponent> physicsComponents = scene.getComponents(PhysicsComponent.class);
-        if (physicsComponents.isEmpty()) return;
+        float referenceX = (worldMinX + worldMaxX) / 2f;
+        float referenceY = (worldMinY + worldMaxY) / 2f;
+        GameObject userPlayer = getUserPlayer();
+        TransformComponent playerTransform = userPlayer != null ? userPlayer.getComponent(TransformComponent.class) : null;
+        if (playerTransform != null) {
+            referenceX = playerTransform.getX();
+            referenceY = playerTransform.getY();
+        }
+        
+        int dueCount = aiScheduler.collect(referenceX, referenceY, deltaTime);
+        if (dueCount == 0) return;
+        
+        if (dueCount < 10 || physicsExecutor == null) {
+            steerAIPlayers(0, dueCount);
+            return;
+        }
         
         int threadCount = Runtime.getRuntime().availableProcessors() - 1;
         threadCount = Math.max(2, threadCount);
-        int batchSize = Math.max(1, physicsComponents.size() / threadCount + 1);
+        int batchSize = Math.max(1, dueCount / threadCount + 1);
         
         List<Future<?>> futures = new ArrayList<>();
         
-        for (int i = 0; i < physicsComponents.size(); i += batchSize) {
+        for (int i = 0; i < dueCount; i += batchSize) {
             final int start = i;
-            final int end = Math.min(i + batchSize, physicsComponents.size());
+            final int end = Math.min(i + batchSize, dueCount);
             
-            Future<?> future = physicsExecutor.submit(() -> {
-                for (int j = start; j < end; j++) {
-                    PhysicsComponent physics = physicsComponents.get(j);
-                    updateSinglePhysics(physics);
-                }
-            });
+            Future<?> future = submitTask(() -> steerAIPlayers(start, end));
             
             futures.add(future);
         }
@@ -198,71 +302,105 @@ public class GameLogic {
         }
     }
     
-    private void updateSinglePhysics(PhysicsComponent physics) {
-        TransformComponent transform = physics.getOwner().getComponent(TransformComponent.class);
-        if (transform != null) {
-            Vector2 pos = transform.getPosition();
-            Vector2 velocity = physics.getVelocity();
-            
-            boolean velocityChanged = false;
-            
-            if (pos.x <= 0 || pos.x >= 1920 - 15) {
-                velocity.x = -velocity.x;
-                velocityChanged = true;
-            }
-            if (pos.y <= 0 || pos.y >= 1080 - 15) {
-                velocity.y = -velocity.y;
-                velocityChanged = true;
-            }
-            
-            if (pos.x < 0) pos.x = 0;
-            if (pos.y < 0) pos.y = 0;
-            if (pos.x > 1920 - 15) pos.x = 1920 - 15;
-            if (pos.y > 1080 - 15) pos.y = 1080 - 15;
-            
-            transform.setPosition(pos);
+    private void steerAIPlayers(int start, int end) {
+        for (int i = start; i < end; i++) {
+            GameObject aiPlayer = aiScheduler.getDue(i);
+            PhysicsComponent physics = aiPlayer.getComponent(PhysicsComponent.class);
+            AISteeringComponent steering = aiPlayer.getComponent(AISteeringComponent.class);
+            if (physics == null || steering == null) continue;
             
-            if (velocityChanged) {
-                physics.setVelocity(velocity);
+            float elapsed = aiScheduler.getDueDeltaTime(i);
+            steering.decide(elapsed);
+            steering.steer(physics, elapsed);
+        }
+    }
+    
+    public AIScheduler getAIScheduler() {
+        return aiScheduler;
+    }
+    
+    public void updatePhysics() {
+        if (gameOver) return;
+        
+        List<PhysicsComponent> physicsComponents = scene.getComponents(PhysicsComponent.class);
+        if (physicsComponents.isEmpty()) return;
+        
+        boundsBuffer.clear();
+        for (PhysicsComponent physics : physicsComponents) {
+            if (!physics.isSleeping()) {
+                boundsBuffer.add(physics);
             }
         }
+        physicsIntegrator.bounce(boundsBuffer, worldMinX, worldMinY, worldMaxX - 15, worldMaxY - 15);
+        boundsBuffer.writeBack(false);
+        boundsBuffer.clear();
+    }
+    
+    public PhysicsIntegrator getPhysicsIntegrator() {
+        return physicsIntegrator;
     }
     
+    public void setPhysicsIntegrator(PhysicsIntegrator physicsIntegrator) {
+        this.physicsIntegrator = physicsIntegrator;
+    }
+    
+    public void setWorldBounds(float minX, float minY, float maxX, float maxY) {
+        this.worldMinX = minX;
+        this.worldMinY = minY;
+        this.worldMaxX = maxX;
+        this.worldMaxY = maxY;
+    }
+    
+    public float getWorldMinX() {
+        return worldMinX;
+    }
+    
+    public float getWorldMinY() {
+        return worldMinY;
+    }
+    
+    public float getWorldMaxX() {
+        return worldMaxX;
+    }
+    
+    public float getWorldMaxY() {
+        return worldMaxY;
+    }
+    
+    // Avoidance runs for the agents the scheduler picked in the last handleAIPlayerMovement call, each against every
+    // other agent and scaled by the time since that agent was last updated
     public void handleAIPlayerAvoidance(float deltaTime) {
         if (gameOver) return;
         
+        int dueCount = aiScheduler.getDueCount();
+        if (dueCount == 0) return;
         List<GameObject> aiPlayers = getAIPlayers();
-        if (aiPlayers.isEmpty()) return;
         
-        if (aiPlayers.size() < 10) {
-            handleAIPlayerAvoidanceSerial(aiPlayers, deltaTime);
+        if (dueCount < 10 || physicsExecutor == null) {
+            handleAIPlayerAvoidanceSerial(aiPlayers, 0, dueCount);
         } else {
-            handleAIPlayerAvoidanceParallel(aiPlayers, deltaTime);
+            handleAIPlayerAvoidanceParallel(aiPlayers, dueCount);
         }
     }
     
-    private void handleAIPlayerAvoidanceSerial(List<GameObject> aiPlayers, float deltaTime) {
-        for (int i = 0; i < aiPlayers.size(); i++) {
-            processAvoidanceForPlayer(aiPlayers, i, deltaTime);
+    private void handleAIPlayerAvoidanceSerial(List<GameObject> aiPlayers, int start, int end) {
+        for (int i = start; i < end; i++) {
+            processAvoidanceForPlayer(aiPlayers, aiScheduler.getDue(i), aiScheduler.getDueDeltaTime(i));
         }
     }
     
-    private void handleAIPlayerAvoidanceParallel(List<GameObject> aiPlayers, float deltaTime) {
+    private void handleAIPlayerAvoidanceParallel(List<GameObject> aiPlayers, int dueCount) {
         int threadCount = Runtime.getRuntime().availableProcessors() - 1;
         threadCount = Math.max(2, threadCount);
-        int batchSize = Math.max(1, aiPlayers.size() / threadCount + 1);
+        int batchSize = Math.max(1, dueCount / threadCount + 1);
         
         List<Future<?>> futures = new ArrayList<>();
         
-        for (int i = 0; i < aiPlayers.size(); i += batchSize) {
+        for (int i = 0; i < dueCount; i += batchSize) {
             final int start = i;
-            final int end = Math.min(i + batchSize, aiPlayers.size());
+            final int end = Math.min(i + batchSize, dueCount);
             
-            Future<?> future = physicsExecutor.submit(() -> {
-                for (int j = start; j < end; j++) {
-                    processAvoidanceForPlayer(aiPlayers, j, deltaTime);
-                }
-            });
+            Future<?> future = submitTask(() -> handleAIPlayerAvoidanceSerial(aiPlayers, start, end));
             
             futures.add(future);
         }
@@ -276,81 +414,106 @@ public class GameLogic {
         }
     }
     
-    private void processAvoidanceForPlayer(List<GameObject> aiPlayers, int index, float deltaTime) {
-        GameObject aiPlayer1 = aiPlayers.get(index);
+    private void processAvoidanceForPlayer(List<GameObject> aiPlayers, GameObject aiPlayer1, float deltaTime) {
         TransformComponent transform1 = aiPlayer1.getComponent(TransformComponent.class);
         PhysicsComponent physics1 = aiPlayer1.getComponent(PhysicsComponent.class);
         
         if (transform1 == null || physics1 == null) return;
         
-        Vector2 pos1 = transform1.getPosition();
-        Vector2 avoidance = new Vector2();
+        // Runs on pool threads for every due agent; temporaries come from the worker's frame arena and are handed back
+        // per inner iteration and per agent, so the arena stays a few vectors deep however many agents there are
+        FrameArena arena = FrameArena.current();
+        int base = arena.mark();
+        Vector2 pos1 = arena.vector(transform1.getX(), transform1.getY());
+        Vector2 avoidance = arena.vector();
         
-        for (int j = index + 1; j < aiPlayers.size(); j++) {
+        for (int j = 0; j < aiPlayers.size(); j++) {
             GameObject aiPlayer2 = aiPlayers.get(j);
+            if (aiPlayer2 == aiPlayer1) continue;
             TransformComponent transform2 = aiPlayer2.getComponent(TransformComponent.class);
             
             if (transform2 == null) continue;
             
-            Vector2 pos2 = transform2.getPosition();
-            float distance = pos1.distance(pos2);
+            int mark = arena.mark();
+            Vector2 pos2 = arena.vector(transform2.getX(), transform2.getY());
+            Vector2 offset = arena.subtract(pos1, pos2);
+            float distance = offset.magnitude();
             
-            if (distance < 80 && distance > 0) {
-                Vector2 direction = pos1.subtract(pos2).normalize();
-                float strength = (80 - distance) / 80.0f;
-                avoidance = avoidance.add(direction.multiply(strength * 50));
+            if (distance < AVOIDANCE_RADIUS && distance > 0) {
+                Vector2 direction = arena.normalize(offset);
+                float strength = (AVOIDANCE_RADIUS - distance) / AVOIDANCE_RADIUS;
+                avoidance.set(arena.add(avoidance, arena.scale(direction, strength * 50)));
             }
+            arena.release(mark);
         }
         
         if (avoidance.magnitude() > 0) {
-            Vector2 currentVelocity = physics1.getVelocity();
+            Vector2 currentVelocity = arena.vector(physics1.getVelocityX(), physics1.getVelocityY());
             float lerpFactor = 0.15f;
-            Vector2 avoidanceDirection = avoidance.normalize();
+            Vector2 avoidanceDirection = arena.normalize(avoidance);
             float avoidanceStrength = Math.min(avoidance.magnitude(), 50f);
             
-            Vector2 targetVelocity = currentVelocity.add(
-                avoidanceDirection.multiply(avoidanceStrength * deltaTime * 10)
+            Vector2 targetVelocity = arena.add(currentVelocity,
+                arena.scale(avoidanceDirection, avoidanceStrength * deltaTime * 10)
             );
             
-            Vector2 newVelocity = new Vector2(
-                currentVelocity.x + (targetVelocity.x - currentVelocity.x) * lerpFactor,
-                currentVelocity.y + (targetVelocity.y - currentVelocity.y) * lerpFactor
-            );
+            Vector2 newVelocity = arena.lerp(currentVelocity, targetVelocity, lerpFactor);
             
             float maxSpeed = 150f;
             if (newVelocity.magnitude() > maxSpeed) {
-                newVelocity = newVelocity.normalize().multiply(maxSpeed);
+                newVelocity = arena.scale(arena.normalize(newVelocity), maxSpeed);
             }
             
             physics1.setVelocity(newVelocity);
         }
+        arena.release(base);
     }
     
+    // Contacts come from ColliderComponents: the user player against every AI player, with AI-AI pairs pruned by the
+    // collision matrix. Objects without a collider never end the game. With the scene's spatial index enabled only
+    // AI players overlapping the player's bounds are tested; their proxies are refreshed first, since the bounce pass
+    // and anything else run after Scene.update have moved them since the index last saw them.
     public void checkCollisions() {
         if (gameOver) return;
         
         GameObject userPlayer = getUserPlayer();
         if (userPlayer == null) return;
         
-        TransformComponent playerTransform = userPlayer.getComponent(TransformComponent.class);
-        if (playerTransform == null) return;
-        
-        Vector2 playerPos = playerTransform.getPosition();
-        
-        List<GameObject> aiPlayers = getAIPlayers();
-        for (GameObject aiPlayer : aiPlayers) {
-            TransformComponent aiTransform = aiPlayer.getComponent(TransformComponent.class);
-            if (aiTransform != null) {
-                float distance = playerPos.distance(aiTransform.getPosition());
-                if (distance < 30) {
-                    gameOver = true;
-                    if (gameEngine != null) {
-                        gameEngine.stop();
-                    }
-                    System.out.println("游戏结束！玩家碰撞到其他玩家！");
-                    return;
-                }
+        contactSet.clear();
+        if (!contactSet.add(userPlayer, 0)) return;
+        if (scene.getSpatialIndex() != null) {
+            scene.updateSpatialIndex(getAIPlayers());
+            addNearbyAIPlayers(userPlayer);
+        } else {
+            contactSet.addAll(getAIPlayers(), 0);
+        }
+        int hits = contactPhase.detect(contactSet, contactMatrix);
+        for (int i = 0; i < hits; i++) {
+            GameObject a = contactSet.getObject(contactPhase.getHitA(i));
+            GameObject b = contactSet.getObject(contactPhase.getHitB(i));
+            if (a != userPlayer && b != userPlayer) continue;
+            gameOver = true;
+            contactSet.clear();
+            scene.getEventBus().publish(new GameOverEvent(userPlayer, a == userPlayer ? b : a));
+            return;
+        }
+        contactSet.clear();
+    }
+    
+    private void addNearbyAIPlayers(GameObject userPlayer) {
+        TransformComponent transform = userPlayer.getComponent(TransformComponent.class);
+        ColliderComponent collider = userPlayer.getComponent(ColliderComponent.class);
+        float x = transform.getX() + collider.getOffsetX();
+        float y = transform.getY() + collider.getOffsetY();
+        nearby.clear();
+        scene.queryRect(x - collider.getHalfWidth(), y - collider.getHalfHeight(),
+            x + collider.getHalfWidth(), y + collider.getHalfHeight(), nearby);
+        for (int i = 0; i < nearby.size(); i++) {
+            GameObject obj = nearby.get(i);
+            if (obj != userPlayer && obj.isActive() && obj.hasTag(AI_TAG)) {
+                contactSet.add(obj, 0);
             }
         }
+        nearby.clear();
     }
 }
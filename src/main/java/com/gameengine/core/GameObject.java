@@ -1,16 +1,31 @@
 package com.gameengine.core;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class GameObject {
+    private static final AtomicInteger NEXT_ID = new AtomicInteger(1);
+    
+    private final int id;
     protected boolean active;
     protected String name;
     protected final List<Component<?>> components;
+    protected Tag tag;
+    private int sceneIndex;
+    private int tagSlot;
+    private int nameSlot;
+    private int spatialProxy;
+    private GameObjectListener listener;
     
     public GameObject() {
+        this.id = NEXT_ID.getAndIncrement();
         this.active = true;
         this.name = "GameObject";
         this.components = new ArrayList<>();
+        this.sceneIndex = -1;
+        this.tagSlot = -1;
+        this.nameSlot = -1;
+        this.spatialProxy = -1;
     }
     
     public GameObject(String name) {
@@ -18,6 +33,11 @@ public class GameObject {
         this.name = name;
     }
     
+    public GameObject(String name, Tag tag) {
+        this(name);
+        this.tag = tag;
+    }
+    
     public void update(float deltaTime) {
         updateComponents(deltaTime);
     }
@@ -44,6 +64,20 @@ public class GameObject {
         return component;
     }
     
+    // Attaches every component before initializing any, so initialize() can already see its siblings
+    public void addComponents(Component<?>... added) {
+        if (components instanceof ArrayList) {
+            ((ArrayList<Component<?>>) components).ensureCapacity(components.size() + added.length);
+        }
+        for (Component<?> component : added) {
+            component.setOwner(this);
+            components.add(component);
+        }
+        for (Component<?> component : added) {
+            component.initialize();
+        }
+    }
+    
     @SuppressWarnings("unchecked")
     public <T extends Component<T>> T getComponent(Class<T> componentType) {
         for (Component<?> component : components) {
@@ -79,6 +113,22 @@ public class GameObject {
         }
     }
     
+    public boolean isThreadSafeUpdate() {
+        if (getClass() != GameObject.class) {
+            return false;
+        }
+        for (int i = 0; i < components.size(); i++) {
+            if (!components.get(i).isThreadSafe()) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    public int getId() {
+        return id;
+    }
+    
     public boolean isActive() {
         return active;
     }
@@ -92,6 +142,66 @@ public class GameObject {
     }
     
     public void setName(String name) {
+        String oldName = this.name;
         this.name = name;
+        if (listener != null && !Objects.equals(oldName, name)) {
+            listener.onNameChanged(this, oldName);
+        }
+    }
+    
+    public Tag getTag() {
+        return tag;
+    }
+    
+    public void setTag(Tag tag) {
+        Tag oldTag = this.tag;
+        this.tag = tag;
+        if (listener != null && oldTag != tag) {
+            listener.onTagChanged(this, oldTag);
+        }
+    }
+    
+    public boolean hasTag(Tag tag) {
+        return this.tag == tag;
+    }
+    
+    public int getSceneIndex() {
+        return sceneIndex;
+    }
+    
+    public void setSceneIndex(int sceneIndex) {
+        this.sceneIndex = sceneIndex;
+    }
+    
+    public int getTagSlot() {
+        return tagSlot;
+    }
+    
+    public void setTagSlot(int tagSlot) {
+        this.tagSlot = tagSlot;
+    }
+    
+    public int getNameSlot() {
+        return nameSlot;
+    }
+    
+    public void setNameSlot(int nameSlot) {
+        this.nameSlot = nameSlot;
+    }
+    
+    public int getSpatialProxy() {
+        return spatialProxy;
+    }
+    
+    public void setSpatialProxy(int spatialProxy) {
+        this.spatialProxy = spatialProxy;
+    }
+    
+    public GameObjectListener getListener() {
+        return listener;
+    }
+    
+    public void setListener(GameObjectListener listener) {
+        this.listener = listener;
     }
 }
@@ -0,0 +1,7 @@
+package com.gameengine.core;
+
+public interface GameObjectListener {
+    void onNameChanged(GameObject gameObject, String oldName);
+    
+    void onTagChanged(GameObject gameObject, Tag oldTag);
+}
@@ -0,0 +1,41 @@
+package com.gameengine.core;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class Tag {
+    private static final ConcurrentHashMap<String, Tag> TAGS = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+    
+    private final String name;
+    private final int id;
+    
+    private Tag(String name, int id) {
+        this.name = name;
+        this.id = id;
+    }
+    
+    public static Tag of(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Tag name must not be null");
+        }
+        Tag tag = TAGS.get(name);
+        if (tag != null) {
+            return tag;
+        }
+        return TAGS.computeIfAbsent(name, n -> new Tag(n, NEXT_ID.getAndIncrement()));
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public int getId() {
+        return id;
+    }
+    
+    @Override
+    public String toString() {
+        return "Tag(" + name + ")";
+    }
+}
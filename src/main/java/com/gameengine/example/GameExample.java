@@ -1,12 +1,21 @@
 package com.gameengine.example;
 
+import com.gameengine.ai.AIScheduler;
+import com.gameengine.ai.FlowField;
+import com.gameengine.collision.ColliderSet;
+import com.gameengine.collision.CollisionLayer;
+import com.gameengine.collision.CollisionMatrix;
+import com.gameengine.collision.NarrowPhase;
+import com.gameengine.components.ColliderComponent;
 import com.gameengine.components.TransformComponent;
 import com.gameengine.components.RenderComponent;
 import com.gameengine.components.PhysicsComponent;
 import com.gameengine.core.GameObject;
 import com.gameengine.core.GameEngine;
+import com.gameengine.core.Tag;
 import com.gameengine.graphics.Renderer;
 import com.gameengine.math.Vector2;
+import com.gameengine.scene.Prefab;
 import com.gameengine.scene.Scene;
 import com.gameengine.input.InputManager;
 
@@ -23,11 +32,33 @@ public class GameExample {
     private static final int WINDOW_HEIGHT = 600;
     private static final float PLAYER_SPEED = 250.0f;
     private static final float FIREBALL_SPEED = 500.0f;
-    private static final float CENTIPEDE_SPEED = 100.0f;
+    private static final float CENTIPEDE_SPEED = 200.0f;
     private static final float FIRE_RATE = 0.3f;
     private static final float SPAWN_RATE = 1.2f;
     private static final int PARALLEL_THRESHOLD = 10;
     private static final int CORE_POOL_SIZE = 4;
+    private static final float PLAYER_RADIUS = 15.0f;
+    private static final float FIREBALL_RADIUS = 10.0f;
+    private static final float CENTIPEDE_RADIUS = 15.0f;
+    private static final int CENTIPEDE_AI_BUDGET = 512;
+    private static final float FLOW_CELL_SIZE = 20.0f;
+    private static final Tag PLAYER_TAG = Tag.of("Player");
+    private static final Tag FIREBALL_TAG = Tag.of("Fireball");
+    private static final Tag CENTIPEDE_TAG = Tag.of("Centipede");
+    private static final int CENTIPEDE_SCORE = 10;
+    private static final CollisionLayer PLAYER_LAYER = CollisionLayer.of("Player");
+    private static final CollisionLayer FIREBALL_LAYER = CollisionLayer.of("Fireball");
+    private static final CollisionLayer CENTIPEDE_LAYER = CollisionLayer.of("Centipede");
+
+    private static final class CentipedeKilled {
+        private final GameObject centipede;
+        private final int points;
+
+        private CentipedeKilled(GameObject centipede, int points) {
+            this.centipede = centipede;
+            this.points = points;
+        }
+    }
 
     public static void main(String[] args) {
         System.out.println("启动游戏引擎...");
@@ -48,20 +79,50 @@ public class GameExample {
                 private Vector2 mousePos = new Vector2(400, 300);
                 private final ExecutorService physicsExecutor = Executors.newFixedThreadPool(CORE_POOL_SIZE);
                 private final ExecutorService collisionExecutor = Executors.newFixedThreadPool(CORE_POOL_SIZE);
+                private final NarrowPhase narrowPhase = createNarrowPhase();
+                private final ColliderSet colliders = new ColliderSet();
+                private final CollisionMatrix collisionMatrix = createCollisionMatrix();
+                private final AIScheduler centipedeScheduler = createCentipedeScheduler();
+                private final FlowField flowField = FlowField.covering(WINDOW_WIDTH, WINDOW_HEIGHT, FLOW_CELL_SIZE);
+                private Prefab fireballPrefab;
+                private Prefab centipedePrefab;
+
+                private NarrowPhase createNarrowPhase() {
+                    NarrowPhase phase = new NarrowPhase(collisionExecutor, CORE_POOL_SIZE);
+                    phase.setParallelThreshold(PARALLEL_THRESHOLD);
+                    return phase;
+                }
+
+                // 只有火球-蜈蚣精、玩家-蜈蚣精会产生碰撞对，火球之间、蜈蚣精之间不再检测
+                private CollisionMatrix createCollisionMatrix() {
+                    return new CollisionMatrix(false)
+                        .setCollides(FIREBALL_LAYER, CENTIPEDE_LAYER, true)
+                        .setCollides(PLAYER_LAYER, CENTIPEDE_LAYER, true);
+                }
+
+                // 远处的蜈蚣精降低追踪决策频率，每帧最多决策 CENTIPEDE_AI_BUDGET 个
+                private AIScheduler createCentipedeScheduler() {
+                    AIScheduler scheduler = new AIScheduler(CENTIPEDE_AI_BUDGET);
+                    scheduler.setLevels(new float[]{250f, 600f}, new float[]{0f, 0.1f, 0.3f});
+                    return scheduler;
+                }
 
                 @Override
                 public void initialize() {
                     super.initialize();
                     this.renderer = engine.getRenderer();
+                    createPrefabs();
+                    // 得分通过事件总线在每帧更新结束时统一结算
+                    getEventBus().subscribe(CentipedeKilled.class, event -> score += event.points);
+                    // 火球和蜈蚣精的绘制命令由多个线程分段录制到各自的命令列表，合并排序后一次提交
+                    enableParallelRender(renderer);
                     this.random = new Random();
                     this.fireTimer = 0;
                     this.spawnTimer = 0;
                     this.score = 0;
                     this.isPlayerDead = false;
                     createPlayer();
-                    for (int i = 0; i < 3; i++) {
-                        createCentipede();
-                    }
+                    createCentipedes(3);
                 }
 
                 @Override
@@ -79,12 +140,12 @@ public class GameExample {
                         fireTimer = 0;
                     }
                     if (spawnTimer > SPAWN_RATE) {
-                        createCentipede();
+                        createCentipedes(1);
                         spawnTimer = 0;
                     }
                     updateFireballs(deltaTime);
                     updateCentipedes(deltaTime);
-                    checkCollisions();
+                    checkCollisions(deltaTime);
                 }
 
                 @Override
@@ -102,7 +163,7 @@ public class GameExample {
                 }
 
                 private void createPlayer() {
-                    player = new GameObject("葫芦娃") {
+                    player = new GameObject("葫芦娃", PLAYER_TAG) {
                         @Override
                         public void update(float deltaTime) {
                             super.update(deltaTime);
@@ -127,6 +188,7 @@ public class GameExample {
                     player.addComponent(new TransformComponent(new Vector2(400, 300)));
                     PhysicsComponent playerPhys = player.addComponent(new PhysicsComponent(1.0f));
                     playerPhys.setFriction(0.95f);
+                    player.addComponent(new ColliderComponent(PLAYER_RADIUS, PLAYER_LAYER));
                     addGameObject(player);
                 }
 
@@ -151,6 +213,46 @@ public class GameExample {
                     trans.setPosition(pos);
                 }
 
+                // 火球和蜈蚣精的组件模板，生成时整批实例化后一次性加入场景
+                private void createPrefabs() {
+                    fireballPrefab = new Prefab("火球", FIREBALL_TAG)
+                        .with(TransformComponent::new)
+                        .with(() -> {
+                            RenderComponent render = new RenderComponent(
+                                    RenderComponent.RenderType.RECTANGLE,
+                                    new Vector2(8, 12),
+                                    new RenderComponent.Color(1.0f, 0.0f, 0.0f, 1.0f)
+                            );
+                            render.setRenderer(renderer);
+                            return render;
+                        })
+                        .with(() -> {
+                            PhysicsComponent physics = new PhysicsComponent(0.1f);
+                            physics.setFriction(1.0f);
+                            return physics;
+                        })
+                        .with(() -> new ColliderComponent(FIREBALL_RADIUS, FIREBALL_LAYER));
+
+                    centipedePrefab = new Prefab("蜈蚣精", CENTIPEDE_TAG)
+                        .with(TransformComponent::new)
+                        .with(() -> {
+                            RenderComponent render = new RenderComponent(
+                                    RenderComponent.RenderType.RECTANGLE,
+                                    new Vector2(22, 22),
+                                    new RenderComponent.Color(0.6f, 0.3f, 0.0f, 1.0f)
+                            );
+                            render.setRenderer(renderer);
+                            return render;
+                        })
+                        .with(() -> {
+                            // 远处的蜈蚣精隔几帧才重新决策一次，不加摩擦才能在两次决策之间保持追踪速度
+                            PhysicsComponent physics = new PhysicsComponent(0.5f);
+                            physics.setFriction(1.0f);
+                            return physics;
+                        })
+                        .with(() -> new ColliderComponent(CENTIPEDE_RADIUS, CENTIPEDE_LAYER));
+                }
+
                 private void createFireball() {
                     if (player == null) return;
                     TransformComponent playerTrans = player.getComponent(TransformComponent.class);
@@ -161,71 +263,20 @@ public class GameExample {
                         mousePos.y - playerPos.y
                     ).normalize();
 
-                    GameObject fireball = new GameObject("火球") {
-                        private final Vector2 direction = fireDir;
-
-                        @Override
-                        public void update(float deltaTime) {
-                            super.update(deltaTime);
-                            updateComponents(deltaTime);
-                            TransformComponent trans = getComponent(TransformComponent.class);
-                            if (trans != null) {
-                                Vector2 pos = trans.getPosition();
-                                pos.x += direction.x * FIREBALL_SPEED * deltaTime;
-                                pos.y += direction.y * FIREBALL_SPEED * deltaTime;
-                                trans.setPosition(pos);
-                            }
-                        }
-
-                        @Override
-                        public void render() {
-                            super.render();
-                            renderComponents();
-                        }
-                    };
-
-                    Vector2 firePos = new Vector2(playerPos.x, playerPos.y);
-                    fireball.addComponent(new TransformComponent(firePos));
-                    RenderComponent fireRender = fireball.addComponent(new RenderComponent(
-                            RenderComponent.RenderType.RECTANGLE,
-                            new Vector2(8, 12),
-                            new RenderComponent.Color(1.0f, 0.0f, 0.0f, 1.0f)
-                    ));
-                    fireRender.setRenderer(renderer);
-                    fireball.addComponent(new PhysicsComponent(0.1f));
-
-                    fireballs.add(fireball);
-                    addGameObject(fireball);
+                    List<GameObject> spawned = spawnBatch(fireballPrefab, 1, (fireball, i) -> {
+                        fireball.getComponent(TransformComponent.class).setPosition(playerPos.x, playerPos.y);
+                        fireball.getComponent(PhysicsComponent.class).setVelocity(fireDir.multiply(FIREBALL_SPEED));
+                    });
+                    fireballs.addAll(spawned);
                 }
 
-                private void createCentipede() {
-                    GameObject centipede = new GameObject("蜈蚣精") {
-                        @Override
-                        public void update(float deltaTime) {
-                            super.update(deltaTime);
-                            updateComponents(deltaTime);
-                        }
-
-                        @Override
-                        public void render() {
-                            super.render();
-                            renderComponents();
-                        }
-                    };
-
-                    Vector2 spawnPos = getRandomEdgePos();
-                    centipede.addComponent(new TransformComponent(spawnPos));
-                    RenderComponent centiRender = centipede.addComponent(new RenderComponent(
-                            RenderComponent.RenderType.RECTANGLE,
-                            new Vector2(22, 22),
-                            new RenderComponent.Color(0.6f, 0.3f, 0.0f, 1.0f)
-                    ));
-                    centiRender.setRenderer(renderer);
-                    PhysicsComponent centiPhys = centipede.addComponent(new PhysicsComponent(0.5f));
-                    centiPhys.setFriction(0.98f);
-
-                    centipedes.add(centipede);
-                    addGameObject(centipede);
+                private void createCentipedes(int count) {
+                    List<GameObject> spawned = spawnBatch(centipedePrefab, count, (centipede, i) ->
+                        centipede.getComponent(TransformComponent.class).setPosition(getRandomEdgePos()));
+                    for (GameObject centipede : spawned) {
+                        centipedes.add(centipede);
+                        centipedeScheduler.add(centipede);
+                    }
                 }
 
                 // ======【并行优化1 - 自适应并行火球更新】基于ExecutorService线程池 开始 ======
@@ -259,18 +310,12 @@ public class GameExample {
                                 GameObject fb = fireballs.get(j);
                                 TransformComponent trans = fb.getComponent(TransformComponent.class);
                                 if (trans == null) {
-                                    synchronized (fireballs) {
-                                        fireballs.remove(j);
-                                        fb.destroy();
-                                    }
+                                    destroyGameObject(fb);
                                     continue;
                                 }
                                 Vector2 pos = trans.getPosition();
                                 if (pos.y <= 0 || pos.x < 0 || pos.x > WINDOW_WIDTH || pos.y > WINDOW_HEIGHT) {
-                                    synchronized (fireballs) {
-                                        fireballs.remove(j);
-                                        fb.destroy();
-                                    }
+                                    destroyGameObject(fb);
                                 }
                             }
                         }));
@@ -278,6 +323,8 @@ public class GameExample {
                     for (Future<?> future : futures) {
                         try { future.get(); } catch (Exception e) { e.printStackTrace(); }
                     }
+                    applyCommands();
+                    fireballs.removeIf(fb -> !fb.isActive());
                 }
                 // ======【并行优化1 - 自适应并行火球更新】结束 ======
 
@@ -287,33 +334,35 @@ public class GameExample {
                     TransformComponent playerTrans = player.getComponent(TransformComponent.class);
                     Vector2 playerPos = playerTrans.getPosition();
 
-                    if (centipedes.size() < PARALLEL_THRESHOLD) {
-                        for (GameObject cp : centipedes) {
+                    // 所有蜈蚣精共享同一张流场，玩家换格子时才重新计算
+                    flowField.update(playerPos.x, playerPos.y);
+                    int dueCount = centipedeScheduler.collect(playerPos.x, playerPos.y, deltaTime);
+                    if (dueCount < PARALLEL_THRESHOLD) {
+                        Vector2 dir = new Vector2();
+                        for (int i = 0; i < dueCount; i++) {
+                            GameObject cp = centipedeScheduler.getDue(i);
                             TransformComponent trans = cp.getComponent(TransformComponent.class);
                             PhysicsComponent phys = cp.getComponent(PhysicsComponent.class);
                             if (trans == null || phys == null) continue;
-                            Vector2 enemyPos = trans.getPosition();
-                            Vector2 dir = new Vector2(playerPos.x - enemyPos.x, playerPos.y - enemyPos.y).normalize();
-                            phys.setVelocity(dir.multiply(CENTIPEDE_SPEED));
+                            chase(trans.getPosition(), playerPos, phys, dir);
                         }
                         return;
                     }
 
                     List<Future<?>> futures = new ArrayList<>();
-                    int batchSize = (int) Math.ceil((double) centipedes.size() / CORE_POOL_SIZE);
+                    int batchSize = (int) Math.ceil((double) dueCount / CORE_POOL_SIZE);
                     for (int i = 0; i < CORE_POOL_SIZE; i++) {
                         final int start = i * batchSize;
-                        final int end = Math.min(start + batchSize, centipedes.size());
+                        final int end = Math.min(start + batchSize, dueCount);
                         final Vector2 targetPos = new Vector2(playerPos.x, playerPos.y);
                         futures.add(physicsExecutor.submit(() -> {
+                            Vector2 dir = new Vector2();
                             for (int j = start; j < end; j++) {
-                                GameObject cp = centipedes.get(j);
+                                GameObject cp = centipedeScheduler.getDue(j);
                                 TransformComponent trans = cp.getComponent(TransformComponent.class);
                                 PhysicsComponent phys = cp.getComponent(PhysicsComponent.class);
                                 if (trans == null || phys == null) continue;
-                                Vector2 enemyPos = trans.getPosition();
-                                Vector2 dir = new Vector2(targetPos.x - enemyPos.x, targetPos.y - enemyPos.y).normalize();
-                                phys.setVelocity(dir.multiply(CENTIPEDE_SPEED));
+                                chase(trans.getPosition(), targetPos, phys, dir);
                             }
                         }));
                     }
@@ -321,92 +370,51 @@ public class GameExample {
                         try { future.get(); } catch (Exception e) { e.printStackTrace(); }
                     }
                 }
+
+                private void chase(Vector2 enemyPos, Vector2 targetPos, PhysicsComponent phys, Vector2 dir) {
+                    if (!flowField.sample(enemyPos.x, enemyPos.y, dir)) {
+                        // 流场外或已与玩家同格时直接追向玩家
+                        float dx = targetPos.x - enemyPos.x;
+                        float dy = targetPos.y - enemyPos.y;
+                        float len = (float) Math.sqrt(dx * dx + dy * dy);
+                        dir.x = len > 0 ? dx / len : 0;
+                        dir.y = len > 0 ? dy / len : 0;
+                    }
+                    phys.setVelocity(dir.x * CENTIPEDE_SPEED, dir.y * CENTIPEDE_SPEED);
+                }
                 // ======【并行优化2 - 自适应并行蜈蚣精物理更新+追踪】结束 ======
 
                 // ======【并行优化3 - 并行碰撞检测+加分逻辑】核心性能优化 开始 ======
-                private void checkCollisions() {
+                private void checkCollisions(float deltaTime) {
                     if (player == null || isPlayerDead) return;
-                    TransformComponent playerTrans = player.getComponent(TransformComponent.class);
-                    Vector2 playerPos = playerTrans.getPosition();
 
-                    for (GameObject cp : centipedes) {
-                        TransformComponent cpTrans = cp.getComponent(TransformComponent.class);
-                        if (cpTrans == null) continue;
-                        Vector2 cpPos = cpTrans.getPosition();
-                        float playerDistance = playerPos.distance(cpPos);
-                        if (playerDistance < 30) {
+                    // 所有碰撞体放进同一个集合，按层排序后只检测碰撞矩阵允许的层对；按本帧位移做扫掠检测
+                    fireballs.removeIf(fb -> !fb.isActive());
+                    centipedes.removeIf(cp -> !cp.isActive());
+                    colliders.clear();
+                    colliders.add(player, deltaTime);
+                    colliders.addAll(fireballs, deltaTime);
+                    colliders.addAll(centipedes, deltaTime);
+                    int hits = narrowPhase.detect(colliders, collisionMatrix);
+                    for (int i = 0; i < hits; i++) {
+                        if (colliders.getObject(narrowPhase.getHitA(i)) == player
+                                || colliders.getObject(narrowPhase.getHitB(i)) == player) {
                             isPlayerDead = true;
                             return;
                         }
                     }
-
-                    if (fireballs.size() < PARALLEL_THRESHOLD) {
-                        Iterator<GameObject> fireIter = fireballs.iterator();
-                        while (fireIter.hasNext()) {
-                            GameObject fb = fireIter.next();
-                            TransformComponent fbTrans = fb.getComponent(TransformComponent.class);
-                            if (fbTrans == null) {
-                                fireIter.remove();
-                                fb.destroy();
-                                continue;
-                            }
-                            Vector2 fbPos = fbTrans.getPosition();
-                            Iterator<GameObject> centiIter = centipedes.iterator();
-                            while (centiIter.hasNext()) {
-                                GameObject cp = centiIter.next();
-                                TransformComponent cpTrans = cp.getComponent(TransformComponent.class);
-                                if (cpTrans == null) {
-                                    centiIter.remove();
-                                    cp.destroy();
-                                    continue;
-                                }
-                                Vector2 cpPos = cpTrans.getPosition();
-                                float hitDistance = fbPos.distance(cpPos);
-                                if (hitDistance < 25) {
-                                    fireIter.remove();
-                                    fb.destroy();
-                                    centiIter.remove();
-                                    cp.destroy();
-                                    score += 10;
-                                    break;
-                                }
-                            }
-                        }
-                        return;
-                    }
-
-                    List<Future<?>> futures = new ArrayList<>();
-                    Iterator<GameObject> fireIter = fireballs.iterator();
-                    while (fireIter.hasNext()) {
-                        GameObject fb = fireIter.next();
-                        futures.add(collisionExecutor.submit(() -> {
-                            TransformComponent fbTrans = fb.getComponent(TransformComponent.class);
-                            if (fbTrans == null) {
-                                synchronized (fireballs) { fireballs.remove(fb); fb.destroy(); }
-                                return;
-                            }
-                            Vector2 fbPos = fbTrans.getPosition();
-                            synchronized (centipedes) {
-                                Iterator<GameObject> centiIter = centipedes.iterator();
-                                while (centiIter.hasNext()) {
-                                    GameObject cp = centiIter.next();
-                                    TransformComponent cpTrans = cp.getComponent(TransformComponent.class);
-                                    if (cpTrans == null) { centiIter.remove(); cp.destroy(); continue; }
-                                    Vector2 cpPos = cpTrans.getPosition();
-                                    float hitDistance = fbPos.distance(cpPos);
-                                    if (hitDistance < 25) {
-                                        synchronized (fireballs) { fireballs.remove(fb); fb.destroy(); }
-                                        centiIter.remove();
-                                        cp.destroy();
-                                        synchronized (this) { score += 10; }
-                                        break;
-                                    }
-                                }
-                            }
-                        }));
+                    for (int i = 0; i < hits; i++) {
+                        int a = narrowPhase.getHitA(i);
+                        int b = narrowPhase.getHitB(i);
+                        int centipedeIndex = colliders.getLayerIndex(a) == CENTIPEDE_LAYER.getIndex() ? a : b;
+                        colliders.getObject(centipedeIndex == a ? b : a).destroy();
+                        GameObject centipede = colliders.getObject(centipedeIndex);
+                        centipede.destroy();
+                        getEventBus().publish(new CentipedeKilled(centipede, CENTIPEDE_SCORE));
                     }
-                    for (Future<?> future : futures) {
-                        try { future.get(); } catch (Exception e) { e.printStackTrace(); }
+                    if (hits > 0) {
+                        fireballs.removeIf(fb -> !fb.isActive());
+                        centipedes.removeIf(cp -> !cp.isActive());
                     }
                 }
                 // ======【并行优化3 - 并行碰撞检测+加分逻辑】结束 ======
@@ -435,6 +443,9 @@ public class GameExample {
                 }
             };
 
+            // 通过 JMX 暴露帧耗时、绘制数量、实体数量等运行指标
+            engine.enableMetrics();
+            gameScene.enableMetrics();
             engine.setScene(gameScene);
             engine.run();
 
@@ -0,0 +1,204 @@
+package com.gameengine.graphics;
+
+import java.util.Arrays;
+
+public class RenderCommandList {
+    public static final byte RECT = 0;
+    public static final byte CIRCLE = 1;
+    public static final byte LINE = 2;
+    
+    private byte[] types;
+    private int[] layers;
+    private float[] p0;
+    private float[] p1;
+    private float[] p2;
+    private float[] p3;
+    private float[] red;
+    private float[] green;
+    private float[] blue;
+    private float[] alpha;
+    private long[] keys;
+    private int[] buckets;
+    private int count;
+    private boolean sorted;
+    
+    public RenderCommandList() {
+        this(256);
+    }
+    
+    public RenderCommandList(int capacity) {
+        capacity = Math.max(1, capacity);
+        types = new byte[capacity];
+        layers = new int[capacity];
+        p0 = new float[capacity];
+        p1 = new float[capacity];
+        p2 = new float[capacity];
+        p3 = new float[capacity];
+        red = new float[capacity];
+        green = new float[capacity];
+        blue = new float[capacity];
+        alpha = new float[capacity];
+        keys = new long[capacity];
+        buckets = new int[16];
+    }
+    
+    public void clear() {
+        count = 0;
+        sorted = false;
+    }
+    
+    // Parameters follow the Renderer call for the same shape: rect (x, y, width, height), circle (x, y, radius)
+    // and line (x1, y1, x2, y2)
+    public void addRect(int layer, float x, float y, float width, float height, float r, float g, float b, float a) {
+        add(RECT, layer, x, y, width, height, r, g, b, a);
+    }
+    
+    public void addCircle(int layer, float x, float y, float radius, float r, float g, float b, float a) {
+        add(CIRCLE, layer, x, y, radius, 0, r, g, b, a);
+    }
+    
+    public void addLine(int layer, float x1, float y1, float x2, float y2, float r, float g, float b, float a) {
+        add(LINE, layer, x1, y1, x2, y2, r, g, b, a);
+    }
+    
+    private void add(byte type, int layer, float a0, float a1, float a2, float a3, float r, float g, float b, float a) {
+        ensureCapacity(count + 1);
+        types[count] = type;
+        layers[count] = layer;
+        p0[count] = a0;
+        p1[count] = a1;
+        p2[count] = a2;
+        p3[count] = a3;
+        red[count] = r;
+        green[count] = g;
+        blue[count] = b;
+        alpha[count] = a;
+        count++;
+        sorted = false;
+    }
+    
+    public void addAll(RenderCommandList other) {
+        int n = other.count;
+        if (n == 0) return;
+        ensureCapacity(count + n);
+        System.arraycopy(other.types, 0, types, count, n);
+        System.arraycopy(other.layers, 0, layers, count, n);
+        System.arraycopy(other.p0, 0, p0, count, n);
+        System.arraycopy(other.p1, 0, p1, count, n);
+        System.arraycopy(other.p2, 0, p2, count, n);
+        System.arraycopy(other.p3, 0, p3, count, n);
+        System.arraycopy(other.red, 0, red, count, n);
+        System.arraycopy(other.green, 0, green, count, n);
+        System.arraycopy(other.blue, 0, blue, count, n);
+        System.arraycopy(other.alpha, 0, alpha, count, n);
+        count += n;
+        sorted = false;
+    }
+    
+    private void ensureCapacity(int capacity) {
+        if (capacity <= types.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, types.length * 2);
+        types = Arrays.copyOf(types, newCapacity);
+        layers = Arrays.copyOf(layers, newCapacity);
+        p0 = Arrays.copyOf(p0, newCapacity);
+        p1 = Arrays.copyOf(p1, newCapacity);
+        p2 = Arrays.copyOf(p2, newCapacity);
+        p3 = Arrays.copyOf(p3, newCapacity);
+        red = Arrays.copyOf(red, newCapacity);
+        green = Arrays.copyOf(green, newCapacity);
+        blue = Arrays.copyOf(blue, newCapacity);
+        alpha = Arrays.copyOf(alpha, newCapacity);
+        keys = new long[newCapacity];
+    }
+    
+    // Sort key is (layer, submission index) packed into a long, so the order is stable by layer and commands within
+    // a layer keep the order they were recorded in. Layers are usually a handful of small numbers, so they are
+    // bucketed with a counting sort; only a very wide layer range falls back to sorting the packed keys.
+    public void sort() {
+        sorted = true;
+        if (count == 0) return;
+        int minLayer = layers[0];
+        int maxLayer = layers[0];
+        for (int i = 1; i < count; i++) {
+            minLayer = Math.min(minLayer, layers[i]);
+            maxLayer = Math.max(maxLayer, layers[i]);
+        }
+        long range = (long) maxLayer - minLayer + 1;
+        if (range == 1) {
+            for (int i = 0; i < count; i++) {
+                keys[i] = i;
+            }
+        } else if (range <= count) {
+            int buckets = (int) range;
+            if (this.buckets.length < buckets + 1) {
+                this.buckets = new int[Math.max(buckets + 1, this.buckets.length * 2)];
+            }
+            int[] start = this.buckets;
+            Arrays.fill(start, 0, buckets + 1, 0);
+            for (int i = 0; i < count; i++) {
+                start[layers[i] - minLayer + 1]++;
+            }
+            for (int b = 0; b < buckets; b++) {
+                start[b + 1] += start[b];
+            }
+            for (int i = 0; i < count; i++) {
+                keys[start[layers[i] - minLayer]++] = i;
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                keys[i] = ((long) layers[i] << 32) | i;
+            }
+            Arrays.sort(keys, 0, count);
+        }
+    }
+    
+    // Index of the command drawn at the given position once sorted; submission order before sort()
+    public int getOrder(int position) {
+        return sorted ? (int) keys[position] : position;
+    }
+    
+    public int size() {
+        return count;
+    }
+    
+    public byte getType(int index) {
+        return types[index];
+    }
+    
+    public int getLayer(int index) {
+        return layers[index];
+    }
+    
+    public float getParam(int index, int param) {
+        switch (param) {
+            case 0:
+                return p0[index];
+            case 1:
+                return p1[index];
+            case 2:
+                return p2[index];
+            case 3:
+                return p3[index];
+            default:
+                throw new IllegalArgumentException("Invalid command parameter " + param);
+        }
+    }
+    
+    public float getRed(int index) {
+        return red[index];
+    }
+    
+    public float getGreen(int index) {
+        return green[index];
+    }
+    
+    public float getBlue(int index) {
+        return blue[index];
+    }
+    
+    public float getAlpha(int index) {
+        return alpha[index];
+    }
+}
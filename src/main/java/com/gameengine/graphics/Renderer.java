@@ -17,6 +17,7 @@ public class Renderer extends JFrame {
     private String title;
     private GamePanel gamePanel;
     private InputManager inputManager;
+    private volatile int lastFrameDrawCount;
     
     public Renderer(int width, int height, String title) {
         this.width = width;
@@ -83,6 +84,7 @@ public class Renderer extends JFrame {
     }
     
     public void endFrame() {
+        lastFrameDrawCount = gamePanel.drawables.size() + gamePanel.listedCommands;
         gamePanel.repaint();
     }
     
@@ -102,6 +104,14 @@ public class Renderer extends JFrame {
         gamePanel.addDrawable(new TextDrawable(text, x, y, r, g, b, a));
     }
     
+    // Draws a recorded list in sort order at this point of the frame; the list must not change until the frame
+    // has been painted
+    public void submit(RenderCommandList commands) {
+        if (commands.size() == 0) return;
+        gamePanel.addDrawable(new CommandListDrawable(commands));
+        gamePanel.listedCommands += commands.size() - 1;
+    }
+    
     public boolean shouldClose() {
         return !isVisible();
     }
@@ -113,6 +123,10 @@ public class Renderer extends JFrame {
         dispose();
     }
     
+    public int getLastFrameDrawCount() {
+        return lastFrameDrawCount;
+    }
+    
     public int getWidth() {
         return width;
     }
@@ -127,6 +141,7 @@ public class Renderer extends JFrame {
     
     private class GamePanel extends JPanel {
         private List<Drawable> drawables = new ArrayList<>();
+        private int listedCommands;
         
         public GamePanel() {
             setPreferredSize(new Dimension(width, height));
@@ -135,6 +150,7 @@ public class Renderer extends JFrame {
         
         public void clear() {
             drawables.clear();
+            listedCommands = 0;
         }
         
         public void addDrawable(Drawable drawable) {
@@ -213,6 +229,48 @@ public class Renderer extends JFrame {
         }
     }
 
+    private static class CommandListDrawable implements Drawable {
+        private final RenderCommandList commands;
+        
+        public CommandListDrawable(RenderCommandList commands) {
+            this.commands = commands;
+        }
+        
+        @Override
+        public void draw(Graphics2D g) {
+            Color color = null;
+            int size = commands.size();
+            for (int position = 0; position < size; position++) {
+                int i = commands.getOrder(position);
+                float r = commands.getRed(i);
+                float gr = commands.getGreen(i);
+                float b = commands.getBlue(i);
+                float a = commands.getAlpha(i);
+                // neighbouring sprites usually share a color, so only build a new Color when it changes
+                if (color == null || color.getRed() != Math.round(r * 255) || color.getGreen() != Math.round(gr * 255)
+                        || color.getBlue() != Math.round(b * 255) || color.getAlpha() != Math.round(a * 255)) {
+                    color = new Color(r, gr, b, a);
+                    g.setColor(color);
+                }
+                float p0 = commands.getParam(i, 0);
+                float p1 = commands.getParam(i, 1);
+                float p2 = commands.getParam(i, 2);
+                float p3 = commands.getParam(i, 3);
+                switch (commands.getType(i)) {
+                    case RenderCommandList.RECT:
+                        g.fillRect((int) p0, (int) p1, (int) p2, (int) p3);
+                        break;
+                    case RenderCommandList.CIRCLE:
+                        g.fillOval((int) (p0 - p2), (int) (p1 - p2), (int) (p2 * 2), (int) (p2 * 2));
+                        break;
+                    case RenderCommandList.LINE:
+                        g.drawLine((int) p0, (int) p1, (int) p2, (int) p3);
+                        break;
+                }
+            }
+        }
+    }
+    
     private static class TextDrawable implements Drawable {
         private String text;
         private float x, y;
@@ -0,0 +1,231 @@
+package com.gameengine.host;
+
+import com.gameengine.components.PhysicsComponent;
+import com.gameengine.components.RenderComponent;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.core.GameLogic;
+import com.gameengine.core.Tag;
+import com.gameengine.math.FrameArena;
+import com.gameengine.physics.PhysicsIntegrators;
+import com.gameengine.scene.Prefab;
+import com.gameengine.scene.Scene;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+public class AllocationBudget {
+    public static final int DEFAULT_WARMUP_TICKS = 2000;
+    public static final int DEFAULT_MEASURED_TICKS = 200;
+    public static final int DEFAULT_ROUNDS = 5;
+    
+    public static final class Result {
+        private final String scenario;
+        private final long budgetBytesPerTick;
+        private final long allocatedBytes;
+        private final int ticks;
+        
+        Result(String scenario, long budgetBytesPerTick, long allocatedBytes, int ticks) {
+            this.scenario = scenario;
+            this.budgetBytesPerTick = budgetBytesPerTick;
+            this.allocatedBytes = allocatedBytes;
+            this.ticks = ticks;
+        }
+        
+        public String getScenario() {
+            return scenario;
+        }
+        
+        public long getBudgetBytesPerTick() {
+            return budgetBytesPerTick;
+        }
+        
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+        
+        public double getBytesPerTick() {
+            return ticks == 0 ? 0 : (double) allocatedBytes / ticks;
+        }
+        
+        public boolean isWithinBudget() {
+            return getBytesPerTick() <= budgetBytesPerTick;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("%s: %.1f B/tick (budget %d) %s", scenario, getBytesPerTick(), budgetBytesPerTick,
+                isWithinBudget() ? "OK" : "OVER BUDGET");
+        }
+    }
+    
+    private static final class Scenario {
+        private final String name;
+        private final long budgetBytesPerTick;
+        private final Function<SimulationInstance, Scene> sceneFactory;
+        
+        Scenario(String name, long budgetBytesPerTick, Function<SimulationInstance, Scene> sceneFactory) {
+            this.name = name;
+            this.budgetBytesPerTick = budgetBytesPerTick;
+            this.sceneFactory = sceneFactory;
+        }
+    }
+    
+    private final List<Scenario> scenarios;
+    private final com.sun.management.ThreadMXBean threads;
+    private int warmupTicks;
+    private int measuredTicks;
+    private int rounds;
+    private long seed;
+    
+    public AllocationBudget() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean)) {
+            throw new IllegalStateException("This JVM does not report per-thread allocation");
+        }
+        this.threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            throw new IllegalStateException("This JVM does not report per-thread allocation");
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+        this.scenarios = new ArrayList<>();
+        this.warmupTicks = DEFAULT_WARMUP_TICKS;
+        this.measuredTicks = DEFAULT_MEASURED_TICKS;
+        this.rounds = DEFAULT_ROUNDS;
+        this.seed = 1;
+    }
+    
+    // The factory builds the scene for a fresh headless instance, as with SimulationHost; a tick handler set on the
+    // instance is part of the measured frame
+    public AllocationBudget scenario(String name, long budgetBytesPerTick, Function<SimulationInstance, Scene> sceneFactory) {
+        if (budgetBytesPerTick < 0) {
+            throw new IllegalArgumentException("Allocation budget must not be negative: " + budgetBytesPerTick);
+        }
+        scenarios.add(new Scenario(name, budgetBytesPerTick, sceneFactory));
+        return this;
+    }
+    
+    // Ticks every scenario on the calling thread, which is the simulation thread being measured; allocation made on
+    // worker pools is not counted. Warmup lets lists reach their steady-state capacity, and the result is the median
+    // of several measured rounds so a late JIT compilation in one round does not decide the outcome.
+    public List<Result> run() {
+        List<Result> results = new ArrayList<>();
+        long threadId = Thread.currentThread().getId();
+        long[] samples = new long[rounds];
+        for (Scenario scenario : scenarios) {
+            SimulationInstance instance = new SimulationInstance(0, seed, SimulationHost.DEFAULT_FIXED_DELTA_TIME);
+            instance.attach(scenario.sceneFactory.apply(instance));
+            for (int i = 0; i < warmupTicks; i++) {
+                instance.tick();
+                FrameArena.endFrame();
+            }
+            for (int round = 0; round < rounds; round++) {
+                long before = threads.getThreadAllocatedBytes(threadId);
+                for (int i = 0; i < measuredTicks; i++) {
+                    instance.tick();
+                    FrameArena.endFrame();
+                }
+                samples[round] = threads.getThreadAllocatedBytes(threadId) - before;
+            }
+            Arrays.sort(samples);
+            long allocated = samples[rounds / 2];
+            instance.stop();
+            instance.getScene().clear();
+            results.add(new Result(scenario.name, scenario.budgetBytesPerTick, allocated, measuredTicks));
+        }
+        return results;
+    }
+    
+    public List<Result> check() {
+        List<Result> results = run();
+        StringBuilder failures = new StringBuilder();
+        for (Result result : results) {
+            if (!result.isWithinBudget()) {
+                failures.append(System.lineSeparator()).append(result);
+            }
+        }
+        if (failures.length() > 0) {
+            throw new IllegalStateException("Allocation budget exceeded:" + failures);
+        }
+        return results;
+    }
+    
+    public void setWarmupTicks(int warmupTicks) {
+        this.warmupTicks = Math.max(0, warmupTicks);
+    }
+    
+    public void setMeasuredTicks(int measuredTicks) {
+        this.measuredTicks = Math.max(1, measuredTicks);
+    }
+    
+    public void setRounds(int rounds) {
+        this.rounds = Math.max(1, rounds);
+    }
+    
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+    
+    private static Scene bodies(SimulationInstance instance, int count) {
+        return bodies(instance, count, "Body");
+    }
+    
+    private static Scene bodies(SimulationInstance instance, int count, String name) {
+        Scene scene = new Scene("AllocationBudget");
+        Prefab body = new Prefab(name, Tag.of(name))
+            .with(TransformComponent::new)
+            .with(RenderComponent::new)
+            .with(() -> {
+                // Bodies that come to rest stop doing work, so keep them moving for the whole measurement
+                PhysicsComponent physics = new PhysicsComponent(1.0f);
+                physics.setFriction(1.0f);
+                physics.setAllowSleep(false);
+                return physics;
+            });
+        Random random = instance.getRandom();
+        scene.spawnBatch(body, count, (obj, i) -> {
+            obj.getComponent(TransformComponent.class).setPosition(random.nextFloat() * 800, random.nextFloat() * 600);
+            obj.getComponent(PhysicsComponent.class).setVelocity(random.nextFloat() * 100 - 50, random.nextFloat() * 100 - 50);
+        });
+        return scene;
+    }
+    
+    // Budgets are bytes per tick on the simulation thread for 1000 bodies (300 agents for avoidance). These paths are
+    // allocation-free today, so anything beyond a little slack is per-frame garbage creeping back in. Exits with
+    // status 1 when over budget.
+    public static void main(String[] args) {
+        AllocationBudget budget = new AllocationBudget()
+            .scenario("component-update", 256, instance -> bodies(instance, 1000))
+            .scenario("batch-integration", 256, instance -> {
+                Scene scene = bodies(instance, 1000);
+                scene.setPhysicsIntegrator(PhysicsIntegrators.getDefault());
+                return scene;
+            })
+            .scenario("transform-publish", 256, instance -> {
+                Scene scene = bodies(instance, 1000);
+                scene.setPhysicsIntegrator(PhysicsIntegrators.getDefault());
+                scene.enableTransformBuffer(null);
+                instance.setTickHandler(i -> i.getScene().publishTransforms());
+                return scene;
+            })
+            .scenario("ai-avoidance", 256, instance -> {
+                Scene scene = bodies(instance, 300, "AIPlayer");
+                GameLogic logic = new GameLogic(scene, instance.getInputManager(), instance.getRandom());
+                instance.setTickHandler(i -> {
+                    logic.handleAIPlayerMovement(i.getFixedDeltaTime());
+                    logic.handleAIPlayerAvoidance(i.getFixedDeltaTime());
+                });
+                return scene;
+            });
+        
+        boolean failed = false;
+        for (Result result : budget.run()) {
+            System.out.println(result);
+            failed |= !result.isWithinBudget();
+        }
+        if (failed) {
+            System.exit(1);
+        }
+    }
+}
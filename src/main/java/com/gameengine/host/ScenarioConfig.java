@@ -0,0 +1,188 @@
+package com.gameengine.host;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+public class ScenarioConfig {
+    private String name = "default";
+    private int players = 1;
+    private int aiAgents = 100;
+    private int maxAiAgents = 1000;
+    private float fireRate = 5f;
+    private float spawnRate = 2f;
+    private float projectileLifetime = 2f;
+    private float inputInterval = 0.5f;
+    private float worldWidth = 1920f;
+    private float worldHeight = 1080f;
+    private int warmupTicks = 300;
+    private int ticks = 3000;
+    private int threads = Math.max(1, Runtime.getRuntime().availableProcessors());
+    private float fixedDeltaTime = SimulationHost.DEFAULT_FIXED_DELTA_TIME;
+    private long seed = 1;
+    private String report;
+    
+    // Plain key=value properties, e.g.
+    //   players=8
+    //   aiAgents=2000
+    //   fireRate=10
+    // Each player gets its own scene, so agent counts and rates are per scene. Unknown keys are rejected so a typo
+    // does not silently run the default scenario.
+    public static ScenarioConfig load(Path path) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        return fromProperties(properties);
+    }
+    
+    public static ScenarioConfig fromProperties(Properties properties) {
+        ScenarioConfig config = new ScenarioConfig();
+        for (String key : properties.stringPropertyNames()) {
+            String value = properties.getProperty(key).trim();
+            try {
+                config.set(key, value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid value for " + key + ": " + value, e);
+            }
+        }
+        config.validate();
+        return config;
+    }
+    
+    private void set(String key, String value) {
+        switch (key) {
+            case "name":
+                name = value;
+                break;
+            case "players":
+                players = Integer.parseInt(value);
+                break;
+            case "aiAgents":
+                aiAgents = Integer.parseInt(value);
+                break;
+            case "maxAiAgents":
+                maxAiAgents = Integer.parseInt(value);
+                break;
+            case "fireRate":
+                fireRate = Float.parseFloat(value);
+                break;
+            case "spawnRate":
+                spawnRate = Float.parseFloat(value);
+                break;
+            case "projectileLifetime":
+                projectileLifetime = Float.parseFloat(value);
+                break;
+            case "inputInterval":
+                inputInterval = Float.parseFloat(value);
+                break;
+            case "worldWidth":
+                worldWidth = Float.parseFloat(value);
+                break;
+            case "worldHeight":
+                worldHeight = Float.parseFloat(value);
+                break;
+            case "warmupTicks":
+                warmupTicks = Integer.parseInt(value);
+                break;
+            case "ticks":
+                ticks = Integer.parseInt(value);
+                break;
+            case "threads":
+                threads = Integer.parseInt(value);
+                break;
+            case "fixedDeltaTime":
+                fixedDeltaTime = Float.parseFloat(value);
+                break;
+            case "seed":
+                seed = Long.parseLong(value);
+                break;
+            case "report":
+                report = value.isEmpty() ? null : value;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown scenario setting: " + key);
+        }
+    }
+    
+    private void validate() {
+        if (players < 1) throw new IllegalArgumentException("players must be at least 1");
+        if (aiAgents < 0) throw new IllegalArgumentException("aiAgents must not be negative");
+        if (maxAiAgents < aiAgents) throw new IllegalArgumentException("maxAiAgents must be at least aiAgents");
+        if (fireRate < 0 || spawnRate < 0) throw new IllegalArgumentException("Rates must not be negative");
+        if (projectileLifetime <= 0) throw new IllegalArgumentException("projectileLifetime must be positive");
+        if (inputInterval <= 0) throw new IllegalArgumentException("inputInterval must be positive");
+        if (worldWidth <= 0 || worldHeight <= 0) throw new IllegalArgumentException("World size must be positive");
+        if (warmupTicks < 0) throw new IllegalArgumentException("warmupTicks must not be negative");
+        if (ticks < 1) throw new IllegalArgumentException("ticks must be at least 1");
+        if (threads < 1) throw new IllegalArgumentException("threads must be at least 1");
+        if (fixedDeltaTime <= 0) throw new IllegalArgumentException("fixedDeltaTime must be positive");
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public int getPlayers() {
+        return players;
+    }
+    
+    public int getAiAgents() {
+        return aiAgents;
+    }
+    
+    public int getMaxAiAgents() {
+        return maxAiAgents;
+    }
+    
+    public float getFireRate() {
+        return fireRate;
+    }
+    
+    public float getSpawnRate() {
+        return spawnRate;
+    }
+    
+    public float getProjectileLifetime() {
+        return projectileLifetime;
+    }
+    
+    public float getInputInterval() {
+        return inputInterval;
+    }
+    
+    public float getWorldWidth() {
+        return worldWidth;
+    }
+    
+    public float getWorldHeight() {
+        return worldHeight;
+    }
+    
+    public int getWarmupTicks() {
+        return warmupTicks;
+    }
+    
+    public int getTicks() {
+        return ticks;
+    }
+    
+    public int getThreads() {
+        return threads;
+    }
+    
+    public float getFixedDeltaTime() {
+        return fixedDeltaTime;
+    }
+    
+    public long getSeed() {
+        return seed;
+    }
+    
+    public String getReport() {
+        return report;
+    }
+}
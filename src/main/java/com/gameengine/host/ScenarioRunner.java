@@ -0,0 +1,331 @@
+package com.gameengine.host;
+
+import com.gameengine.collision.ColliderSet;
+import com.gameengine.collision.CollisionLayer;
+import com.gameengine.collision.CollisionMatrix;
+import com.gameengine.collision.NarrowPhase;
+import com.gameengine.components.ColliderComponent;
+import com.gameengine.components.PhysicsComponent;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.core.GameLogic;
+import com.gameengine.core.GameObject;
+import com.gameengine.core.Tag;
+import com.gameengine.input.InputManager;
+import com.gameengine.math.Vector2;
+import com.gameengine.metrics.Histogram;
+import com.gameengine.scene.Prefab;
+import com.gameengine.scene.Scene;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+public class ScenarioRunner {
+    public static final String PLAYER_NAME = "Player";
+    public static final String AI_NAME = "AIPlayer";
+    public static final String PROJECTILE_NAME = "Projectile";
+    public static final String[] PHASES = {"input", "spawn", "ai", "bounds", "collision", "sceneUpdate", "tick"};
+    
+    private static final int INPUT = 0;
+    private static final int SPAWN = 1;
+    private static final int AI = 2;
+    private static final int BOUNDS = 3;
+    private static final int COLLISION = 4;
+    private static final int SCENE_UPDATE = 5;
+    private static final int TICK = 6;
+    private static final int[] MOVE_KEYS = {87, 65, 83, 68};
+    private static final float PROJECTILE_SPEED = 500f;
+    private static final float PLAYER_RADIUS = 15f;
+    private static final float AGENT_RADIUS = 15f;
+    private static final float PROJECTILE_RADIUS = 5f;
+    private static final CollisionLayer PROJECTILE_LAYER = CollisionLayer.of(PROJECTILE_NAME);
+    private static final int MAX_SAMPLES = 1 << 20;
+    
+    private final ScenarioConfig config;
+    private final Histogram[] phases;
+    private final List<Session> sessions;
+    private final AtomicLong kills;
+    private volatile boolean recording;
+    
+    public ScenarioRunner(ScenarioConfig config) {
+        this.config = config;
+        this.phases = new Histogram[PHASES.length];
+        int samples = (int) Math.min(MAX_SAMPLES, (long) config.getTicks() * config.getPlayers());
+        for (int i = 0; i < phases.length; i++) {
+            phases[i] = new Histogram(samples);
+        }
+        this.sessions = new ArrayList<>();
+        this.kills = new AtomicLong();
+    }
+    
+    // One simulation instance per player: GameLogic drives a single user player per scene, so N players means N
+    // independent scenes ticked side by side on the host's pool, each with its own agents and synthetic input
+    private final class Session implements Consumer<SimulationInstance> {
+        private final Scene scene;
+        private final GameLogic logic;
+        private final InputManager input;
+        private final Random random;
+        private final Prefab agentPrefab;
+        private final Prefab projectilePrefab;
+        private final ArrayDeque<GameObject> projectiles;
+        private final ArrayDeque<Double> projectileExpiry;
+        private final ColliderSet colliders;
+        private final CollisionMatrix collisionMatrix;
+        private final NarrowPhase narrowPhase;
+        private float fireAccumulator;
+        private float spawnAccumulator;
+        private float inputTimer;
+        
+        Session(SimulationInstance instance) {
+            this.scene = new Scene("Scenario-" + instance.getId());
+            this.input = instance.getInputManager();
+            this.random = instance.getRandom();
+            this.logic = new GameLogic(scene, input, random);
+            logic.setWorldBounds(0, 0, config.getWorldWidth(), config.getWorldHeight());
+            this.projectiles = new ArrayDeque<>();
+            this.projectileExpiry = new ArrayDeque<>();
+            this.colliders = new ColliderSet();
+            this.collisionMatrix = new CollisionMatrix(false).setCollides(PROJECTILE_LAYER, GameLogic.AI_LAYER, true);
+            this.narrowPhase = new NarrowPhase(null, 1);
+            
+            Tag agentTag = Tag.of(AI_NAME);
+            this.agentPrefab = new Prefab(AI_NAME, agentTag)
+                .with(TransformComponent::new)
+                .with(() -> new PhysicsComponent(1.0f))
+                .with(() -> new ColliderComponent(AGENT_RADIUS, GameLogic.AI_LAYER));
+            this.projectilePrefab = new Prefab(PROJECTILE_NAME, Tag.of(PROJECTILE_NAME))
+                .with(TransformComponent::new)
+                .with(() -> {
+                    PhysicsComponent physics = new PhysicsComponent(0.1f);
+                    physics.setFriction(1.0f);
+                    physics.setAllowSleep(false);
+                    return physics;
+                })
+                .with(() -> new ColliderComponent(PROJECTILE_RADIUS, PROJECTILE_LAYER));
+            
+            GameObject player = new GameObject(PLAYER_NAME, Tag.of(PLAYER_NAME));
+            player.addComponent(new TransformComponent(new Vector2(config.getWorldWidth() / 2, config.getWorldHeight() / 2)));
+            player.addComponent(new PhysicsComponent(1.0f)).setFriction(0.95f);
+            player.addComponent(new ColliderComponent(PLAYER_RADIUS, GameLogic.PLAYER_LAYER));
+            scene.addGameObject(player);
+            spawnAgents(config.getAiAgents());
+            instance.setTickHandler(this);
+        }
+        
+        @Override
+        public void accept(SimulationInstance instance) {
+            float deltaTime = instance.getFixedDeltaTime();
+            long start = System.nanoTime();
+            driveInput(deltaTime);
+            logic.handlePlayerInput(deltaTime);
+            long inputEnd = System.nanoTime();
+            
+            spawn(instance.getTime(), deltaTime);
+            long spawnEnd = System.nanoTime();
+            
+            logic.handleAIPlayerMovement(deltaTime);
+            logic.handleAIPlayerAvoidance(deltaTime);
+            long aiEnd = System.nanoTime();
+            
+            logic.updatePhysics();
+            long boundsEnd = System.nanoTime();
+            
+            collide(deltaTime);
+            long collisionEnd = System.nanoTime();
+            
+            if (recording) {
+                phases[INPUT].record(inputEnd - start);
+                phases[SPAWN].record(spawnEnd - inputEnd);
+                phases[AI].record(aiEnd - spawnEnd);
+                phases[BOUNDS].record(boundsEnd - aiEnd);
+                phases[COLLISION].record(collisionEnd - boundsEnd);
+            }
+        }
+        
+        // Holds a random combination of movement keys for inputInterval seconds and moves the aim point around
+        private void driveInput(float deltaTime) {
+            inputTimer -= deltaTime;
+            if (inputTimer > 0) return;
+            inputTimer = config.getInputInterval();
+            for (int key : MOVE_KEYS) {
+                if (random.nextFloat() < 0.35f) {
+                    input.onKeyPressed(key);
+                } else {
+                    input.onKeyReleased(key);
+                }
+            }
+            input.onMouseMoved(random.nextFloat() * config.getWorldWidth(), random.nextFloat() * config.getWorldHeight());
+        }
+        
+        private void spawn(double time, float deltaTime) {
+            while (!projectiles.isEmpty() && projectileExpiry.peekFirst() <= time) {
+                projectiles.pollFirst().destroy();
+                projectileExpiry.pollFirst();
+            }
+            
+            fireAccumulator += config.getFireRate() * deltaTime;
+            int shots = (int) fireAccumulator;
+            fireAccumulator -= shots;
+            GameObject player = scene.findFirstByName(PLAYER_NAME);
+            TransformComponent playerTransform = player != null ? player.getComponent(TransformComponent.class) : null;
+            if (shots > 0 && playerTransform != null) {
+                float px = playerTransform.getX();
+                float py = playerTransform.getY();
+                float dx = input.getMouseX() - px;
+                float dy = input.getMouseY() - py;
+                float length = (float) Math.sqrt(dx * dx + dy * dy);
+                float vx = length > 0 ? dx / length * PROJECTILE_SPEED : PROJECTILE_SPEED;
+                float vy = length > 0 ? dy / length * PROJECTILE_SPEED : 0;
+                List<GameObject> spawned = scene.spawnBatch(projectilePrefab, shots, (obj, i) -> {
+                    obj.getComponent(TransformComponent.class).setPosition(px, py);
+                    obj.getComponent(PhysicsComponent.class).setVelocity(vx, vy);
+                });
+                for (GameObject projectile : spawned) {
+                    projectiles.addLast(projectile);
+                    projectileExpiry.addLast(time + config.getProjectileLifetime());
+                }
+            }
+            
+            spawnAccumulator += config.getSpawnRate() * deltaTime;
+            int agents = (int) spawnAccumulator;
+            spawnAccumulator -= agents;
+            int room = config.getMaxAiAgents() - scene.findByName(AI_NAME).size();
+            if (agents > 0 && room > 0) {
+                spawnAgents(Math.min(agents, room));
+            }
+        }
+        
+        private void spawnAgents(int count) {
+            if (count <= 0) return;
+            scene.spawnBatch(agentPrefab, count, (obj, i) -> obj.getComponent(TransformComponent.class)
+                .setPosition(random.nextFloat() * config.getWorldWidth(), random.nextFloat() * config.getWorldHeight()));
+        }
+        
+        // Projectiles against agents with the same layered swept test GameExample uses; projectile-projectile and
+        // agent-agent pairs are never generated, and a hit removes both
+        private void collide(float deltaTime) {
+            colliders.capture(scene.findByName(PROJECTILE_NAME), deltaTime);
+            colliders.addAll(scene.findByName(AI_NAME), deltaTime);
+            int hits = narrowPhase.detect(colliders, collisionMatrix);
+            for (int i = 0; i < hits; i++) {
+                colliders.getObject(narrowPhase.getHitA(i)).destroy();
+                colliders.getObject(narrowPhase.getHitB(i)).destroy();
+            }
+            if (recording) {
+                kills.addAndGet(hits);
+            }
+        }
+    }
+    
+    public String run() {
+        SimulationHost host = new SimulationHost(config.getThreads());
+        try {
+            Random seeds = new Random(config.getSeed());
+            for (int i = 0; i < config.getPlayers(); i++) {
+                host.createInstance(seeds.nextLong(), config.getFixedDeltaTime(), instance -> {
+                    Session session = new Session(instance);
+                    sessions.add(session);
+                    return session.scene;
+                });
+            }
+            
+            host.run(config.getWarmupTicks());
+            recording = true;
+            long start = System.nanoTime();
+            long instanceTicks = 0;
+            for (int tick = 0; tick < config.getTicks() && host.getInstanceCount() > 0; tick++) {
+                host.step();
+                List<SimulationInstance> instances = host.getInstances();
+                for (int i = 0; i < instances.size(); i++) {
+                    SimulationInstance instance = instances.get(i);
+                    phases[SCENE_UPDATE].record(instance.getLastUpdateNanos());
+                    phases[TICK].record(instance.getLastTickNanos());
+                }
+                instanceTicks += instances.size();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            recording = false;
+            return report(seconds, instanceTicks);
+        } finally {
+            host.shutdown();
+        }
+    }
+    
+    private String report(double seconds, long instanceTicks) {
+        int entities = 0;
+        int agents = 0;
+        int projectiles = 0;
+        for (Session session : sessions) {
+            entities += session.scene.getObjects().size();
+            agents += session.scene.findByName(AI_NAME).size();
+            projectiles += session.scene.findByName(PROJECTILE_NAME).size();
+        }
+        
+        StringBuilder json = new StringBuilder();
+        json.append("{\n");
+        json.append("  \"scenario\": \"").append(config.getName().replace("\\", "\\\\").replace("\"", "\\\"")).append("\",\n");
+        field(json, "players", config.getPlayers());
+        field(json, "aiAgents", config.getAiAgents());
+        field(json, "maxAiAgents", config.getMaxAiAgents());
+        field(json, "fireRate", config.getFireRate());
+        field(json, "spawnRate", config.getSpawnRate());
+        field(json, "threads", config.getThreads());
+        field(json, "warmupTicks", config.getWarmupTicks());
+        field(json, "ticks", config.getTicks());
+        field(json, "wallSeconds", seconds);
+        field(json, "stepsPerSecond", config.getTicks() / seconds);
+        field(json, "ticksPerSecond", instanceTicks / seconds);
+        field(json, "finalEntities", entities);
+        field(json, "finalAiAgents", agents);
+        field(json, "finalProjectiles", projectiles);
+        field(json, "kills", kills.get());
+        json.append("  \"phasesMicros\": {\n");
+        for (int i = 0; i < PHASES.length; i++) {
+            Histogram histogram = phases[i];
+            json.append(String.format(Locale.ROOT,
+                "    \"%s\": {\"p50\": %.2f, \"p95\": %.2f, \"p99\": %.2f, \"max\": %.2f}%s%n", PHASES[i],
+                histogram.percentile(50) / 1e3, histogram.percentile(95) / 1e3, histogram.percentile(99) / 1e3,
+                histogram.getMax() / 1e3, i < PHASES.length - 1 ? "," : ""));
+        }
+        json.append("  }\n");
+        json.append("}\n");
+        return json.toString();
+    }
+    
+    private static void field(StringBuilder json, String name, long value) {
+        json.append("  \"").append(name).append("\": ").append(value).append(",\n");
+    }
+    
+    private static void field(StringBuilder json, String name, double value) {
+        json.append("  \"").append(name).append("\": ").append(String.format(Locale.ROOT, "%.3f", value)).append(",\n");
+    }
+    
+    // Usage: ScenarioRunner [scenario.properties]; prints the JSON report, or writes it to the configured report path
+    public static void main(String[] args) {
+        try {
+            ScenarioConfig config = args.length > 0
+                ? ScenarioConfig.load(Paths.get(args[0]))
+                : ScenarioConfig.fromProperties(new Properties());
+            String report = new ScenarioRunner(config).run();
+            if (config.getReport() != null) {
+                Path path = Paths.get(config.getReport());
+                Files.write(path, report.getBytes(StandardCharsets.UTF_8));
+                System.out.println("Report written to " + path.toAbsolutePath());
+            } else {
+                System.out.print(report);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Scenario failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.gameengine.host;
+
+import com.gameengine.math.FrameArena;
+import com.gameengine.scene.Scene;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+public class SimulationHost {
+    public static final float DEFAULT_FIXED_DELTA_TIME = 1.0f / 60.0f;
+    
+    private final ExecutorService executor;
+    private final List<SimulationInstance> instances;
+    private final List<Future<?>> futures;
+    private int nextId;
+    
+    public SimulationHost() {
+        this(Math.max(2, Runtime.getRuntime().availableProcessors() - 1));
+    }
+    
+    public SimulationHost(int threadCount) {
+        this.executor = Executors.newFixedThreadPool(Math.max(1, threadCount));
+        this.instances = new ArrayList<>();
+        this.futures = new ArrayList<>();
+    }
+    
+    public SimulationInstance createInstance(long seed, Function<SimulationInstance, Scene> sceneFactory) {
+        return createInstance(seed, DEFAULT_FIXED_DELTA_TIME, sceneFactory);
+    }
+    
+    public SimulationInstance createInstance(long seed, float fixedDeltaTime, Function<SimulationInstance, Scene> sceneFactory) {
+        SimulationInstance instance = new SimulationInstance(nextId++, seed, fixedDeltaTime);
+        instance.attach(sceneFactory.apply(instance));
+        instances.add(instance);
+        return instance;
+    }
+    
+    // One task per instance rather than per batch: matches differ a lot in cost, so letting the pool hand
+    // them out one by one keeps the threads evenly loaded. Instances never share state, so ticks need no locks.
+    // Scenes hosted here should keep their own parallel update off; nested waits on a shared pool can starve it.
+    public void step() {
+        futures.clear();
+        for (int i = 0; i < instances.size(); i++) {
+            SimulationInstance instance = instances.get(i);
+            futures.add(executor.submit(() -> {
+                try {
+                    instance.tick();
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                    instance.stop();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+        futures.clear();
+        FrameArena.endFrame();
+        removeStopped();
+    }
+    
+    public void run(int ticks) {
+        for (int i = 0; i < ticks && !instances.isEmpty(); i++) {
+            step();
+        }
+    }
+    
+    private void removeStopped() {
+        for (int i = instances.size() - 1; i >= 0; i--) {
+            SimulationInstance instance = instances.get(i);
+            if (!instance.isRunning()) {
+                instances.remove(i);
+                if (instance.getScene() != null) {
+                    instance.getScene().clear();
+                }
+            }
+        }
+    }
+    
+    public List<SimulationInstance> getInstances() {
+        return Collections.unmodifiableList(instances);
+    }
+    
+    public int getInstanceCount() {
+        return instances.size();
+    }
+    
+    public void shutdown() {
+        for (SimulationInstance instance : instances) {
+            instance.stop();
+        }
+        removeStopped();
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
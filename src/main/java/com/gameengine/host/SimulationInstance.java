@@ -0,0 +1,109 @@
+package com.gameengine.host;
+
+import com.gameengine.input.InputManager;
+import com.gameengine.scene.Scene;
+import java.util.Random;
+import java.util.function.Consumer;
+
+public class SimulationInstance {
+    private final int id;
+    private final long seed;
+    private final float fixedDeltaTime;
+    private final InputManager inputManager;
+    private final Random random;
+    private Scene scene;
+    private Consumer<SimulationInstance> tickHandler;
+    private long tickCount;
+    private long lastTickNanos;
+    private long lastUpdateNanos;
+    private volatile boolean running;
+    
+    SimulationInstance(int id, long seed, float fixedDeltaTime) {
+        this.id = id;
+        this.seed = seed;
+        this.fixedDeltaTime = fixedDeltaTime;
+        this.inputManager = InputManager.create();
+        this.random = new Random(seed);
+        this.running = true;
+    }
+    
+    void attach(Scene scene) {
+        this.scene = scene;
+        if (scene != null) {
+            scene.initialize();
+        }
+    }
+    
+    // Runs on whichever pool thread picks the instance up; everything touched here belongs to this instance only
+    void tick() {
+        if (!running || scene == null) return;
+        
+        long start = System.nanoTime();
+        if (tickHandler != null) {
+            tickHandler.accept(this);
+        }
+        long updateStart = System.nanoTime();
+        scene.update(fixedDeltaTime);
+        long end = System.nanoTime();
+        inputManager.update();
+        tickCount++;
+        lastUpdateNanos = end - updateStart;
+        lastTickNanos = end - start;
+    }
+    
+    public void stop() {
+        running = false;
+    }
+    
+    public boolean isRunning() {
+        return running;
+    }
+    
+    public int getId() {
+        return id;
+    }
+    
+    public long getSeed() {
+        return seed;
+    }
+    
+    public Scene getScene() {
+        return scene;
+    }
+    
+    public InputManager getInputManager() {
+        return inputManager;
+    }
+    
+    public Random getRandom() {
+        return random;
+    }
+    
+    public float getFixedDeltaTime() {
+        return fixedDeltaTime;
+    }
+    
+    public long getTickCount() {
+        return tickCount;
+    }
+    
+    public long getLastTickNanos() {
+        return lastTickNanos;
+    }
+    
+    public long getLastUpdateNanos() {
+        return lastUpdateNanos;
+    }
+    
+    public double getTime() {
+        return tickCount * (double) fixedDeltaTime;
+    }
+    
+    public Consumer<SimulationInstance> getTickHandler() {
+        return tickHandler;
+    }
+    
+    public void setTickHandler(Consumer<SimulationInstance> tickHandler) {
+        this.tickHandler = tickHandler;
+    }
+}
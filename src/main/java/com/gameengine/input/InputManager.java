@@ -31,6 +31,10 @@ public class InputManager {
         return instance;
     }
     
+    public static InputManager create() {
+        return new InputManager();
+    }
+    
     public void update() {
         justPressedKeys.clear();
         for (int i = 0; i < mouseButtonsJustPressed.length; i++) {
@@ -0,0 +1,144 @@
+package com.gameengine.math;
+
+import java.util.Arrays;
+
+public final class FrameArena {
+    public static final int DEFAULT_CAPACITY = 64;
+    
+    private static final int POISON_BITS = 0x7FC0DEAD;
+    private static final float POISON = Float.intBitsToFloat(POISON_BITS);
+    private static final ThreadLocal<FrameArena> ARENAS = ThreadLocal.withInitial(FrameArena::new);
+    private static volatile long frame;
+    private static volatile boolean debug;
+    
+    private Vector2[] vectors;
+    private int vectorCount;
+    private long localFrame;
+    
+    private FrameArena() {
+        this.vectors = new Vector2[DEFAULT_CAPACITY];
+        for (int i = 0; i < vectors.length; i++) {
+            vectors[i] = new Vector2();
+        }
+        this.localFrame = frame;
+    }
+    
+    // The calling thread's arena. Nothing is reset across threads: endFrame only moves a global frame counter, and
+    // each arena notices on its next use and starts over, so workers never touch another thread's arena.
+    public static FrameArena current() {
+        FrameArena arena = ARENAS.get();
+        long now = frame;
+        if (arena.localFrame != now) {
+            arena.localFrame = now;
+            arena.release(0);
+        }
+        return arena;
+    }
+    
+    // Called once per frame by whoever drives the frame, after all work of that frame (including pool tasks) has
+    // finished; everything handed out before this call is dead afterwards
+    public static void endFrame() {
+        frame++;
+    }
+    
+    public static long getFrame() {
+        return frame;
+    }
+    
+    // In debug mode released vectors are overwritten with a marker NaN and never handed out again, so a stale
+    // reference reads NaN instead of another caller's values and isStale can report it
+    public static void setDebug(boolean enabled) {
+        debug = enabled;
+    }
+    
+    public static boolean isDebug() {
+        return debug;
+    }
+    
+    public static boolean isStale(Vector2 vector) {
+        return Float.floatToRawIntBits(vector.x) == POISON_BITS && Float.floatToRawIntBits(vector.y) == POISON_BITS;
+    }
+    
+    public static Vector2 checkLive(Vector2 vector) {
+        if (isStale(vector)) {
+            throw new IllegalStateException("Frame arena vector used after its frame ended");
+        }
+        return vector;
+    }
+    
+    public Vector2 vector() {
+        return vector(0, 0);
+    }
+    
+    public Vector2 vector(float x, float y) {
+        if (vectorCount == vectors.length) {
+            grow();
+        }
+        Vector2 vector = vectors[vectorCount++];
+        vector.x = x;
+        vector.y = y;
+        return vector;
+    }
+    
+    private void grow() {
+        int oldLength = vectors.length;
+        vectors = Arrays.copyOf(vectors, oldLength * 2);
+        for (int i = oldLength; i < vectors.length; i++) {
+            vectors[i] = new Vector2();
+        }
+    }
+    
+    public Vector2 copy(Vector2 other) {
+        return vector(other.x, other.y);
+    }
+    
+    public Vector2 add(Vector2 a, Vector2 b) {
+        return vector(a.x + b.x, a.y + b.y);
+    }
+    
+    public Vector2 subtract(Vector2 a, Vector2 b) {
+        return vector(a.x - b.x, a.y - b.y);
+    }
+    
+    public Vector2 scale(Vector2 v, float scalar) {
+        return vector(v.x * scalar, v.y * scalar);
+    }
+    
+    public Vector2 normalize(Vector2 v) {
+        float magnitude = v.magnitude();
+        if (magnitude == 0) return vector(0, 0);
+        return vector(v.x / magnitude, v.y / magnitude);
+    }
+    
+    public Vector2 lerp(Vector2 a, Vector2 b, float t) {
+        return vector(a.x + (b.x - a.x) * t, a.y + (b.y - a.y) * t);
+    }
+    
+    // For loops that would otherwise keep every iteration's temporaries until the end of the frame:
+    // take a mark before the iteration and release it afterwards
+    public int mark() {
+        return vectorCount;
+    }
+    
+    public void release(int mark) {
+        if (mark < 0 || mark > vectorCount) {
+            throw new IllegalArgumentException("Invalid arena mark " + mark + " (in use: " + vectorCount + ")");
+        }
+        if (debug) {
+            for (int i = mark; i < vectorCount; i++) {
+                vectors[i].x = POISON;
+                vectors[i].y = POISON;
+                vectors[i] = new Vector2();
+            }
+        }
+        vectorCount = mark;
+    }
+    
+    public int getVectorCount() {
+        return vectorCount;
+    }
+    
+    public int getVectorCapacity() {
+        return vectors.length;
+    }
+}
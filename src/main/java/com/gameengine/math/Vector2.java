@@ -18,6 +18,16 @@ public class Vector2 {
         this.y = other.y;
     }
     
+    public Vector2 set(float x, float y) {
+        this.x = x;
+        this.y = y;
+        return this;
+    }
+    
+    public Vector2 set(Vector2 other) {
+        return set(other.x, other.y);
+    }
+    
     public Vector2 add(Vector2 other) {
         return new Vector2(this.x + other.x, this.y + other.y);
     }
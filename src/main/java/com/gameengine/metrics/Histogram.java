@@ -0,0 +1,56 @@
+package com.gameengine.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class Histogram {
+    public static final int DEFAULT_SIZE = 1024;
+    
+    private final AtomicLongArray samples;
+    private final AtomicLong count;
+    
+    public Histogram() {
+        this(DEFAULT_SIZE);
+    }
+    
+    public Histogram(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Histogram size must be positive: " + size);
+        }
+        this.samples = new AtomicLongArray(size);
+        this.count = new AtomicLong();
+    }
+    
+    // Keeps the most recent samples in a ring, so percentiles follow current behaviour rather than the whole run
+    public void record(long value) {
+        long index = count.getAndIncrement();
+        samples.lazySet((int) (index % samples.length()), value);
+    }
+    
+    public long getCount() {
+        return count.get();
+    }
+    
+    public long percentile(double percentile) {
+        long[] sorted = snapshot();
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+    
+    public long getMax() {
+        long[] sorted = snapshot();
+        return sorted.length == 0 ? 0 : sorted[sorted.length - 1];
+    }
+    
+    private long[] snapshot() {
+        int size = (int) Math.min(count.get(), samples.length());
+        long[] values = new long[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = samples.get(i);
+        }
+        Arrays.sort(values);
+        return values;
+    }
+}
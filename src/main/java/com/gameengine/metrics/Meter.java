@@ -0,0 +1,42 @@
+package com.gameengine.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class Meter {
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+    
+    private final LongAdder count;
+    private long windowStart;
+    private long windowCount;
+    private double rate;
+    
+    public Meter() {
+        this.count = new LongAdder();
+        this.windowStart = System.nanoTime();
+    }
+    
+    public void mark() {
+        count.increment();
+    }
+    
+    public void mark(long n) {
+        count.add(n);
+    }
+    
+    public long getCount() {
+        return count.sum();
+    }
+    
+    // Events per second over the last completed one-second window; only readers pay for the bookkeeping
+    public synchronized double getRate() {
+        long now = System.nanoTime();
+        long elapsed = now - windowStart;
+        if (elapsed >= WINDOW_NANOS) {
+            long total = count.sum();
+            rate = (total - windowCount) * 1e9 / elapsed;
+            windowCount = total;
+            windowStart = now;
+        }
+        return rate;
+    }
+}
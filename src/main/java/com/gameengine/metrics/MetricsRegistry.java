@@ -0,0 +1,168 @@
+package com.gameengine.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+
+public class MetricsRegistry {
+    public static final String DOMAIN = "com.gameengine";
+    
+    private static class Metric {
+        private final String type;
+        private final Supplier<Object> value;
+        
+        Metric(String type, Supplier<Object> value) {
+            this.type = type;
+            this.value = value;
+        }
+    }
+    
+    private final String type;
+    private final String name;
+    private final Map<String, Metric> metrics;
+    private ObjectName objectName;
+    
+    public MetricsRegistry(String type, String name) {
+        this.type = type;
+        this.name = name;
+        this.metrics = new LinkedHashMap<>();
+    }
+    
+    public synchronized Meter meter(String metricName) {
+        Meter meter = new Meter();
+        put(metricName + "Count", Long.class.getName(), meter::getCount);
+        put(metricName + "PerSecond", Double.class.getName(), meter::getRate);
+        return meter;
+    }
+    
+    // Samples are recorded in nanoseconds and published as milliseconds
+    public synchronized Histogram timer(String metricName) {
+        Histogram histogram = new Histogram();
+        put(metricName + "P50Millis", Double.class.getName(), () -> histogram.percentile(50) / 1e6);
+        put(metricName + "P95Millis", Double.class.getName(), () -> histogram.percentile(95) / 1e6);
+        put(metricName + "P99Millis", Double.class.getName(), () -> histogram.percentile(99) / 1e6);
+        put(metricName + "MaxMillis", Double.class.getName(), () -> histogram.getMax() / 1e6);
+        put(metricName + "Count", Long.class.getName(), histogram::getCount);
+        return histogram;
+    }
+    
+    public synchronized void gauge(String metricName, LongSupplier supplier) {
+        put(metricName, Long.class.getName(), supplier::getAsLong);
+    }
+    
+    public synchronized void doubleGauge(String metricName, DoubleSupplier supplier) {
+        put(metricName, Double.class.getName(), supplier::getAsDouble);
+    }
+    
+    private void put(String metricName, String valueType, Supplier<Object> value) {
+        if (objectName != null) {
+            throw new IllegalStateException("Metrics must be added before the registry is registered: " + metricName);
+        }
+        if (metrics.putIfAbsent(metricName, new Metric(valueType, value)) != null) {
+            throw new IllegalArgumentException("Duplicate metric: " + metricName);
+        }
+    }
+    
+    public synchronized Object getValue(String metricName) {
+        Metric metric = metrics.get(metricName);
+        return metric != null ? metric.value.get() : null;
+    }
+    
+    // Exposes every metric as a read-only attribute of com.gameengine:type=<type>,name=<name> on the platform
+    // MBean server, where jconsole or any JMX scraper can read it
+    public synchronized ObjectName register() {
+        if (objectName != null) return objectName;
+        try {
+            ObjectName candidate = new ObjectName(DOMAIN + ":type=" + type + ",name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new MetricsMBean(), candidate);
+            objectName = candidate;
+            return objectName;
+        } catch (JMException e) {
+            throw new IllegalStateException("Failed to register metrics for " + type + " " + name, e);
+        }
+    }
+    
+    public synchronized void unregister() {
+        if (objectName == null) return;
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            e.printStackTrace();
+        }
+        objectName = null;
+    }
+    
+    public synchronized ObjectName getObjectName() {
+        return objectName;
+    }
+    
+    private class MetricsMBean implements DynamicMBean {
+        @Override
+        public Object getAttribute(String attribute) throws AttributeNotFoundException {
+            synchronized (MetricsRegistry.this) {
+                Metric metric = metrics.get(attribute);
+                if (metric == null) {
+                    throw new AttributeNotFoundException(attribute);
+                }
+                return metric.value.get();
+            }
+        }
+        
+        @Override
+        public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+            throw new AttributeNotFoundException("Metric is read-only: " + attribute.getName());
+        }
+        
+        @Override
+        public AttributeList getAttributes(String[] attributes) {
+            AttributeList list = new AttributeList();
+            for (String attribute : attributes) {
+                try {
+                    list.add(new Attribute(attribute, getAttribute(attribute)));
+                } catch (AttributeNotFoundException e) {
+                    // Unknown attributes are left out of the result, as the DynamicMBean contract allows
+                }
+            }
+            return list;
+        }
+        
+        @Override
+        public AttributeList setAttributes(AttributeList attributes) {
+            return new AttributeList();
+        }
+        
+        @Override
+        public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+            throw new ReflectionException(new NoSuchMethodException(actionName));
+        }
+        
+        @Override
+        public MBeanInfo getMBeanInfo() {
+            synchronized (MetricsRegistry.this) {
+                MBeanAttributeInfo[] attributes = new MBeanAttributeInfo[metrics.size()];
+                int i = 0;
+                for (Map.Entry<String, Metric> entry : metrics.entrySet()) {
+                    attributes[i++] = new MBeanAttributeInfo(entry.getKey(), entry.getValue().type, entry.getKey(),
+                        true, false, false);
+                }
+                return new MBeanInfo(MetricsRegistry.class.getName(), type + " metrics", attributes, null, null, null);
+            }
+        }
+    }
+}
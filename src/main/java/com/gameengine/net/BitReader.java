@@ -0,0 +1,56 @@
+package com.gameengine.net;
+
+import java.nio.ByteBuffer;
+
+public class BitReader {
+    private ByteBuffer buffer;
+    private int position;
+    private int limit;
+    private long accumulator;
+    private int accumulatedBits;
+    
+    public void reset(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.position = buffer.position();
+        this.limit = buffer.limit();
+        this.accumulator = 0;
+        this.accumulatedBits = 0;
+    }
+    
+    public long readBits(int bits) {
+        while (accumulatedBits < bits) {
+            if (position >= limit) {
+                throw new IllegalStateException("Snapshot data ended unexpectedly");
+            }
+            accumulator |= (buffer.get(position++) & 0xFFL) << accumulatedBits;
+            accumulatedBits += 8;
+        }
+        long value = accumulator & ((1L << bits) - 1);
+        accumulator >>>= bits;
+        accumulatedBits -= bits;
+        return value;
+    }
+    
+    public long remainingBits() {
+        return (long) (limit - position) * 8 + accumulatedBits;
+    }
+    
+    public boolean readBoolean() {
+        return readBits(1) != 0;
+    }
+    
+    public long readUnsigned() {
+        if (readBits(1) == 0) {
+            return readBits(7);
+        }
+        if (readBits(1) == 0) {
+            return readBits(15);
+        }
+        return readBits(32);
+    }
+    
+    public int readSigned() {
+        int zigzag = (int) readUnsigned();
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+}
@@ -0,0 +1,81 @@
+package com.gameengine.net;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+public class BitWriter {
+    private byte[] data;
+    private int length;
+    private long accumulator;
+    private int accumulatedBits;
+    
+    public BitWriter() {
+        this(256);
+    }
+    
+    public BitWriter(int initialCapacity) {
+        this.data = new byte[Math.max(16, initialCapacity)];
+    }
+    
+    public void reset() {
+        length = 0;
+        accumulator = 0;
+        accumulatedBits = 0;
+    }
+    
+    // Bits are packed least significant first; at most 32 bits per call so the accumulator never overflows
+    public void writeBits(long value, int bits) {
+        accumulator |= (value & ((1L << bits) - 1)) << accumulatedBits;
+        accumulatedBits += bits;
+        while (accumulatedBits >= 8) {
+            if (length == data.length) {
+                data = Arrays.copyOf(data, length * 2);
+            }
+            data[length++] = (byte) accumulator;
+            accumulator >>>= 8;
+            accumulatedBits -= 8;
+        }
+    }
+    
+    public void writeBoolean(boolean value) {
+        writeBits(value ? 1 : 0, 1);
+    }
+    
+    // Small values dominate deltas, so they get a 1-bit prefix and 7 payload bits; larger ones pay for it
+    public void writeUnsigned(long value) {
+        value &= 0xFFFFFFFFL;
+        if (value < (1L << 7)) {
+            writeBits(0, 1);
+            writeBits(value, 7);
+        } else if (value < (1L << 15)) {
+            writeBits(1, 2);
+            writeBits(value, 15);
+        } else {
+            writeBits(3, 2);
+            writeBits(value, 32);
+        }
+    }
+    
+    public void writeSigned(int value) {
+        writeUnsigned((value << 1) ^ (value >> 31));
+    }
+    
+    public int finish() {
+        if (accumulatedBits > 0) {
+            writeBits(0, 8 - accumulatedBits);
+        }
+        return length;
+    }
+    
+    public byte[] getData() {
+        return data;
+    }
+    
+    public int getLength() {
+        return length;
+    }
+    
+    public void writeTo(ByteBuffer buffer) {
+        buffer.put(data, 0, length);
+    }
+}
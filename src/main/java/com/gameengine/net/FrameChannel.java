@@ -0,0 +1,123 @@
+package com.gameengine.net;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+public class FrameChannel {
+    public static final int MAX_FRAME_SIZE = 16 * 1024 * 1024;
+    
+    private final SocketChannel channel;
+    private ByteBuffer inbound;
+    private ByteBuffer outbound;
+    private int readOffset;
+    private long bytesSent;
+    private long bytesReceived;
+    
+    public FrameChannel(SocketChannel channel) throws IOException {
+        this.channel = channel;
+        channel.configureBlocking(false);
+        this.inbound = ByteBuffer.allocateDirect(64 * 1024);
+        this.outbound = ByteBuffer.allocateDirect(64 * 1024);
+    }
+    
+    public void send(byte[] data, int offset, int length) {
+        ensureOutbound(length + 4);
+        outbound.putInt(length);
+        outbound.put(data, offset, length);
+    }
+    
+    public void sendInt(int value) {
+        ensureOutbound(8);
+        outbound.putInt(4);
+        outbound.putInt(value);
+    }
+    
+    private void ensureOutbound(int extra) {
+        if (outbound.remaining() < extra) {
+            ByteBuffer grown = ByteBuffer.allocateDirect(Math.max(outbound.capacity() * 2, outbound.position() + extra));
+            outbound.flip();
+            grown.put(outbound);
+            outbound = grown;
+        }
+    }
+    
+    // Writes whatever the socket accepts without blocking; returns true once nothing is left queued
+    public boolean flush() throws IOException {
+        if (outbound.position() == 0) return true;
+        outbound.flip();
+        bytesSent += channel.write(outbound);
+        outbound.compact();
+        return outbound.position() == 0;
+    }
+    
+    public boolean hasPendingWrites() {
+        return outbound.position() > 0;
+    }
+    
+    // Frames returned by nextFrame() stay valid until the next call to read()
+    public int read() throws IOException {
+        if (readOffset > 0) {
+            inbound.flip();
+            inbound.position(readOffset);
+            inbound.compact();
+            readOffset = 0;
+        }
+        if (!inbound.hasRemaining()) {
+            ByteBuffer grown = ByteBuffer.allocateDirect(inbound.capacity() * 2);
+            inbound.flip();
+            grown.put(inbound);
+            inbound = grown;
+        }
+        int read = channel.read(inbound);
+        if (read > 0) {
+            bytesReceived += read;
+        }
+        return read;
+    }
+    
+    public ByteBuffer nextFrame() throws IOException {
+        int available = inbound.position() - readOffset;
+        if (available < 4) return null;
+        int length = inbound.getInt(readOffset);
+        if (length < 0 || length > MAX_FRAME_SIZE) {
+            throw new IOException("Invalid frame length " + length);
+        }
+        if (available < length + 4) {
+            if (inbound.capacity() < length + 4) {
+                ByteBuffer grown = ByteBuffer.allocateDirect(length + 4);
+                inbound.flip();
+                inbound.position(readOffset);
+                grown.put(inbound);
+                inbound = grown;
+                readOffset = 0;
+            }
+            return null;
+        }
+        ByteBuffer frame = inbound.duplicate();
+        frame.limit(readOffset + 4 + length);
+        frame.position(readOffset + 4);
+        readOffset += 4 + length;
+        return frame;
+    }
+    
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+    
+    public boolean isOpen() {
+        return channel.isOpen();
+    }
+    
+    public long getBytesSent() {
+        return bytesSent;
+    }
+    
+    public long getBytesReceived() {
+        return bytesReceived;
+    }
+}
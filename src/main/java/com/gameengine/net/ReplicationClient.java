@@ -0,0 +1,83 @@
+package com.gameengine.net;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+public class ReplicationClient {
+    private final FrameChannel channel;
+    private final Snapshot[] history;
+    private final SnapshotCodec codec;
+    private final BitReader reader;
+    private Snapshot latest;
+    private long snapshotsReceived;
+    private long snapshotsDropped;
+    
+    public ReplicationClient(InetSocketAddress address) throws IOException {
+        SocketChannel socket = SocketChannel.open(address);
+        socket.socket().setTcpNoDelay(true);
+        this.channel = new FrameChannel(socket);
+        this.history = new Snapshot[SnapshotCodec.HISTORY_SIZE];
+        for (int i = 0; i < history.length; i++) {
+            history[i] = new Snapshot();
+        }
+        this.codec = new SnapshotCodec();
+        this.reader = new BitReader();
+    }
+    
+    // Decodes every complete frame that has arrived and acknowledges the newest one; returns how many were applied
+    public int poll() throws IOException {
+        if (channel.read() < 0) {
+            throw new IOException("Replication server closed the connection");
+        }
+        int applied = 0;
+        int newestTick = SnapshotCodec.NO_BASELINE;
+        ByteBuffer frame;
+        while ((frame = channel.nextFrame()) != null) {
+            if (frame.remaining() < 8) continue;
+            int tick = Integer.reverseBytes(frame.getInt(frame.position()));
+            Snapshot target = history[Math.floorMod(tick, history.length)];
+            reader.reset(frame);
+            if (codec.decode(reader, this::lookup, target)) {
+                latest = target;
+                newestTick = tick;
+                snapshotsReceived++;
+                applied++;
+            } else {
+                target.reset(SnapshotCodec.NO_BASELINE);
+                snapshotsDropped++;
+            }
+        }
+        if (newestTick != SnapshotCodec.NO_BASELINE) {
+            channel.sendInt(newestTick);
+        }
+        channel.flush();
+        return applied;
+    }
+    
+    private Snapshot lookup(int tick) {
+        Snapshot snapshot = history[Math.floorMod(tick, history.length)];
+        return snapshot.tick == tick ? snapshot : null;
+    }
+    
+    public Snapshot getLatestSnapshot() {
+        return latest;
+    }
+    
+    public long getBytesReceived() {
+        return channel.getBytesReceived();
+    }
+    
+    public long getSnapshotsReceived() {
+        return snapshotsReceived;
+    }
+    
+    public long getSnapshotsDropped() {
+        return snapshotsDropped;
+    }
+    
+    public void close() {
+        channel.close();
+    }
+}
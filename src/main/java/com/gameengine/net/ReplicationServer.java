@@ -0,0 +1,216 @@
+package com.gameengine.net;
+
+import com.gameengine.core.GameObject;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+public class ReplicationServer {
+    private static class Connection {
+        private final FrameChannel channel;
+        private int ackedTick;
+        private long snapshotsSent;
+        private long snapshotsSkipped;
+        
+        Connection(FrameChannel channel) {
+            this.channel = channel;
+            this.ackedTick = SnapshotCodec.NO_BASELINE;
+        }
+    }
+    
+    private final ServerSocketChannel serverChannel;
+    private final Selector selector;
+    private final List<Connection> connections;
+    private final Snapshot[] history;
+    private final SnapshotCodec codec;
+    private final BitWriter writer;
+    private int tick;
+    private int[] encodedBaselines;
+    private byte[][] encodedFrames;
+    private int[] encodedLengths;
+    private int encodedCount;
+    private long lastEncodeNanos;
+    private long lastBytesQueued;
+    
+    public ReplicationServer(InetSocketAddress address) throws IOException {
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(address);
+        serverChannel.configureBlocking(false);
+        this.selector = Selector.open();
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        this.connections = new ArrayList<>();
+        this.history = new Snapshot[SnapshotCodec.HISTORY_SIZE];
+        for (int i = 0; i < history.length; i++) {
+            history[i] = new Snapshot();
+        }
+        this.codec = new SnapshotCodec();
+        this.writer = new BitWriter(4096);
+        this.encodedBaselines = new int[4];
+        this.encodedFrames = new byte[4][];
+        this.encodedLengths = new int[4];
+    }
+    
+    public int getPort() throws IOException {
+        return ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+    }
+    
+    // Accepts new clients and drains their acknowledgements; never blocks
+    public void poll() throws IOException {
+        selector.selectNow();
+        Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+            SelectionKey key = keys.next();
+            keys.remove();
+            if (!key.isValid()) continue;
+            if (key.isAcceptable()) {
+                SocketChannel socket = serverChannel.accept();
+                if (socket != null) {
+                    socket.socket().setTcpNoDelay(true);
+                    Connection connection = new Connection(new FrameChannel(socket));
+                    socket.register(selector, SelectionKey.OP_READ, connection);
+                    connections.add(connection);
+                }
+            } else if (key.isReadable()) {
+                Connection connection = (Connection) key.attachment();
+                try {
+                    if (connection.channel.read() < 0) {
+                        disconnect(connection, key);
+                        continue;
+                    }
+                    ByteBuffer frame;
+                    while ((frame = connection.channel.nextFrame()) != null) {
+                        if (frame.remaining() == 4) {
+                            connection.ackedTick = Math.max(connection.ackedTick, frame.getInt(frame.position()));
+                        }
+                    }
+                } catch (IOException e) {
+                    disconnect(connection, key);
+                }
+            }
+        }
+    }
+    
+    private void disconnect(Connection connection, SelectionKey key) {
+        if (key != null) {
+            key.cancel();
+        }
+        connection.channel.close();
+        connections.remove(connection);
+    }
+    
+    // Captures the scene once and delta-encodes it per client against that client's last acknowledged tick.
+    // Clients acknowledging the same tick share one encoding. A client whose previous frame has not drained
+    // yet is skipped this tick; its next frame is still a valid delta because baselines only move on acks.
+    public int broadcast(List<GameObject> objects) throws IOException {
+        long start = System.nanoTime();
+        tick++;
+        Snapshot current = history[tick % history.length];
+        codec.capture(objects, tick, current);
+        
+        long queued = 0;
+        encodedCount = 0;
+        for (int i = connections.size() - 1; i >= 0; i--) {
+            Connection connection = connections.get(i);
+            try {
+                if (!connection.channel.flush()) {
+                    connection.snapshotsSkipped++;
+                    continue;
+                }
+                int slot = encodedSlot(baselineFor(connection.ackedTick), current);
+                connection.channel.send(encodedFrames[slot], 0, encodedLengths[slot]);
+                connection.snapshotsSent++;
+                queued += encodedLengths[slot] + 4;
+                connection.channel.flush();
+            } catch (IOException e) {
+                disconnect(connection, null);
+            }
+        }
+        lastEncodeNanos = System.nanoTime() - start;
+        lastBytesQueued = queued;
+        return tick;
+    }
+    
+    private Snapshot baselineFor(int ackedTick) {
+        if (ackedTick == SnapshotCodec.NO_BASELINE || tick - ackedTick >= history.length || ackedTick >= tick) {
+            return null;
+        }
+        Snapshot baseline = history[ackedTick % history.length];
+        return baseline.tick == ackedTick ? baseline : null;
+    }
+    
+    private int encodedSlot(Snapshot baseline, Snapshot current) {
+        int baselineTick = baseline != null ? baseline.tick : SnapshotCodec.NO_BASELINE;
+        for (int i = 0; i < encodedCount; i++) {
+            if (encodedBaselines[i] == baselineTick) {
+                return i;
+            }
+        }
+        if (encodedCount == encodedBaselines.length) {
+            encodedBaselines = Arrays.copyOf(encodedBaselines, encodedCount * 2);
+            encodedFrames = Arrays.copyOf(encodedFrames, encodedCount * 2);
+            encodedLengths = Arrays.copyOf(encodedLengths, encodedCount * 2);
+        }
+        int length = codec.encode(current, baseline, writer);
+        int slot = encodedCount++;
+        if (encodedFrames[slot] == null || encodedFrames[slot].length < length) {
+            encodedFrames[slot] = new byte[Math.max(length, 256)];
+        }
+        System.arraycopy(writer.getData(), 0, encodedFrames[slot], 0, length);
+        encodedBaselines[slot] = baselineTick;
+        encodedLengths[slot] = length;
+        return slot;
+    }
+    
+    public void close() {
+        for (Connection connection : connections) {
+            connection.channel.close();
+        }
+        connections.clear();
+        try {
+            selector.close();
+            serverChannel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+    
+    public int getTick() {
+        return tick;
+    }
+    
+    public int getClientCount() {
+        return connections.size();
+    }
+    
+    public long getClientBytesSent(int index) {
+        return connections.get(index).channel.getBytesSent();
+    }
+    
+    public int getClientAckedTick(int index) {
+        return connections.get(index).ackedTick;
+    }
+    
+    public long getClientSnapshotsSent(int index) {
+        return connections.get(index).snapshotsSent;
+    }
+    
+    public long getClientSnapshotsSkipped(int index) {
+        return connections.get(index).snapshotsSkipped;
+    }
+    
+    public long getLastEncodeNanos() {
+        return lastEncodeNanos;
+    }
+    
+    public long getLastBytesQueued() {
+        return lastBytesQueued;
+    }
+}
@@ -0,0 +1,123 @@
+package com.gameengine.net;
+
+import java.util.Arrays;
+
+public class Snapshot {
+    public static final int POSITION_X = 0;
+    public static final int POSITION_Y = 1;
+    public static final int VELOCITY_X = 2;
+    public static final int VELOCITY_Y = 3;
+    public static final int ROTATION = 4;
+    public static final int SIZE_X = 5;
+    public static final int SIZE_Y = 6;
+    public static final int COLOR = 7;
+    public static final int FLAGS = 8;
+    public static final int FIELD_COUNT = 9;
+    
+    public static final int FLAG_VISIBLE = 1;
+    public static final int FLAG_PHYSICS = 1 << 1;
+    public static final int FLAG_RENDER = 1 << 2;
+    public static final int RENDER_TYPE_SHIFT = 3;
+    
+    public static final float POSITION_SCALE = 16f;
+    public static final float VELOCITY_SCALE = 16f;
+    public static final float ROTATION_SCALE = 100f;
+    public static final float SIZE_SCALE = 16f;
+    
+    int tick;
+    int count;
+    int[] ids;
+    int[] values;
+    
+    public Snapshot() {
+        this.tick = -1;
+        this.ids = new int[64];
+        this.values = new int[64 * FIELD_COUNT];
+    }
+    
+    void reset(int tick) {
+        this.tick = tick;
+        this.count = 0;
+    }
+    
+    // Entities are always appended in ascending id order, which is what lets deltas be a single merge walk
+    int append(int id) {
+        if (count == ids.length) {
+            ids = Arrays.copyOf(ids, count * 2);
+            values = Arrays.copyOf(values, count * 2 * FIELD_COUNT);
+        }
+        ids[count] = id;
+        Arrays.fill(values, count * FIELD_COUNT, (count + 1) * FIELD_COUNT, 0);
+        return count++;
+    }
+    
+    public int indexOf(int id) {
+        return Arrays.binarySearch(ids, 0, count, id);
+    }
+    
+    public int getTick() {
+        return tick;
+    }
+    
+    public int size() {
+        return count;
+    }
+    
+    public int getId(int index) {
+        return ids[index];
+    }
+    
+    public int getValue(int index, int field) {
+        return values[index * FIELD_COUNT + field];
+    }
+    
+    public float getPositionX(int index) {
+        return getValue(index, POSITION_X) / POSITION_SCALE;
+    }
+    
+    public float getPositionY(int index) {
+        return getValue(index, POSITION_Y) / POSITION_SCALE;
+    }
+    
+    public float getVelocityX(int index) {
+        return getValue(index, VELOCITY_X) / VELOCITY_SCALE;
+    }
+    
+    public float getVelocityY(int index) {
+        return getValue(index, VELOCITY_Y) / VELOCITY_SCALE;
+    }
+    
+    public float getRotation(int index) {
+        return getValue(index, ROTATION) / ROTATION_SCALE;
+    }
+    
+    public float getSizeX(int index) {
+        return getValue(index, SIZE_X) / SIZE_SCALE;
+    }
+    
+    public float getSizeY(int index) {
+        return getValue(index, SIZE_Y) / SIZE_SCALE;
+    }
+    
+    public int getColorRGBA(int index) {
+        return getValue(index, COLOR);
+    }
+    
+    public int getFlags(int index) {
+        return getValue(index, FLAGS);
+    }
+    
+    public boolean isVisible(int index) {
+        return (getFlags(index) & FLAG_VISIBLE) != 0;
+    }
+    
+    public int getRenderTypeOrdinal(int index) {
+        return (getFlags(index) >>> RENDER_TYPE_SHIFT) & 3;
+    }
+    
+    public boolean contentEquals(Snapshot other) {
+        return count == other.count
+            && Arrays.equals(ids, 0, count, other.ids, 0, count)
+            && Arrays.equals(values, 0, count * FIELD_COUNT, other.values, 0, count * FIELD_COUNT);
+    }
+}
@@ -0,0 +1,282 @@
+package com.gameengine.net;
+
+import com.gameengine.components.PhysicsComponent;
+import com.gameengine.components.RenderComponent;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.core.GameObject;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntFunction;
+
+public class SnapshotCodec {
+    public static final int HISTORY_SIZE = 32;
+    public static final int NO_BASELINE = -1;
+    
+    private long[] sortKeys;
+    private int[] removedIds;
+    private int[] changedIndices;
+    private int[] changedMasks;
+    private int[] changedBaselineIndices;
+    private int[] changedIds;
+    private int[] changedValues;
+    
+    public SnapshotCodec() {
+        this.sortKeys = new long[64];
+        this.removedIds = new int[64];
+        this.changedIndices = new int[64];
+        this.changedMasks = new int[64];
+        this.changedBaselineIndices = new int[64];
+        this.changedIds = new int[64];
+        this.changedValues = new int[64 * Snapshot.FIELD_COUNT];
+    }
+    
+    public void capture(List<GameObject> objects, int tick, Snapshot out) {
+        int size = objects.size();
+        if (sortKeys.length < size) {
+            sortKeys = new long[Math.max(size, sortKeys.length * 2)];
+        }
+        int keyCount = 0;
+        for (int i = 0; i < size; i++) {
+            GameObject obj = objects.get(i);
+            if (obj.isActive() && obj.hasComponent(TransformComponent.class)) {
+                sortKeys[keyCount++] = ((long) obj.getId() << 32) | i;
+            }
+        }
+        Arrays.sort(sortKeys, 0, keyCount);
+        
+        out.reset(tick);
+        for (int k = 0; k < keyCount; k++) {
+            GameObject obj = objects.get((int) sortKeys[k]);
+            int base = out.append(obj.getId()) * Snapshot.FIELD_COUNT;
+            int[] values = out.values;
+            
+            TransformComponent transform = obj.getComponent(TransformComponent.class);
+            values[base + Snapshot.POSITION_X] = quantize(transform.getX(), Snapshot.POSITION_SCALE);
+            values[base + Snapshot.POSITION_Y] = quantize(transform.getY(), Snapshot.POSITION_SCALE);
+            values[base + Snapshot.ROTATION] = quantize(transform.getRotation(), Snapshot.ROTATION_SCALE);
+            int flags = 0;
+            
+            PhysicsComponent physics = obj.getComponent(PhysicsComponent.class);
+            if (physics != null) {
+                flags |= Snapshot.FLAG_PHYSICS;
+                values[base + Snapshot.VELOCITY_X] = quantize(physics.getVelocityX(), Snapshot.VELOCITY_SCALE);
+                values[base + Snapshot.VELOCITY_Y] = quantize(physics.getVelocityY(), Snapshot.VELOCITY_SCALE);
+            }
+            
+            RenderComponent render = obj.getComponent(RenderComponent.class);
+            if (render != null) {
+                flags |= Snapshot.FLAG_RENDER | (render.getRenderType().ordinal() << Snapshot.RENDER_TYPE_SHIFT);
+                if (render.isVisible()) {
+                    flags |= Snapshot.FLAG_VISIBLE;
+                }
+                values[base + Snapshot.SIZE_X] = quantize(render.getSize().x, Snapshot.SIZE_SCALE);
+                values[base + Snapshot.SIZE_Y] = quantize(render.getSize().y, Snapshot.SIZE_SCALE);
+                values[base + Snapshot.COLOR] = packColor(render.getColor());
+            }
+            values[base + Snapshot.FLAGS] = flags;
+        }
+    }
+    
+    static int quantize(float value, float scale) {
+        float scaled = value * scale;
+        if (scaled != scaled) return 0;
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, (long) Math.floor(scaled + 0.5f)));
+    }
+    
+    static int packColor(RenderComponent.Color color) {
+        return (channel(color.r) << 24) | (channel(color.g) << 16) | (channel(color.b) << 8) | channel(color.a);
+    }
+    
+    private static int channel(float value) {
+        return Math.max(0, Math.min(255, Math.round(value * 255)));
+    }
+    
+    // Layout: tick, baseline tick, removed ids as gaps, then changed entities as id gap + field mask + fields.
+    // Numeric fields are sent as signed deltas against the baseline (or zero for new entities), colour and flags raw.
+    public int encode(Snapshot current, Snapshot baseline, BitWriter writer) {
+        writer.reset();
+        writer.writeBits(current.tick, 32);
+        writer.writeBits(baseline != null ? baseline.tick : NO_BASELINE, 32);
+        
+        int removedCount = 0;
+        int changedCount = 0;
+        int baselineCount = baseline != null ? baseline.count : 0;
+        int i = 0;
+        int j = 0;
+        while (i < current.count || j < baselineCount) {
+            int currentId = i < current.count ? current.ids[i] : Integer.MAX_VALUE;
+            int baselineId = j < baselineCount ? baseline.ids[j] : Integer.MAX_VALUE;
+            if (baselineId < currentId) {
+                removedIds = ensure(removedIds, removedCount + 1);
+                removedIds[removedCount++] = baselineId;
+                j++;
+                continue;
+            }
+            int mask;
+            int baselineIndex = -1;
+            if (baselineId == currentId) {
+                baselineIndex = j++;
+                mask = changeMask(current.values, i, baseline.values, baselineIndex);
+            } else {
+                mask = changeMask(current.values, i, null, 0) | (1 << Snapshot.FLAGS);
+            }
+            if (mask != 0) {
+                changedIndices = ensure(changedIndices, changedCount + 1);
+                changedMasks = ensure(changedMasks, changedCount + 1);
+                changedBaselineIndices = ensure(changedBaselineIndices, changedCount + 1);
+                changedIndices[changedCount] = i;
+                changedBaselineIndices[changedCount] = baselineIndex;
+                changedMasks[changedCount++] = mask;
+            }
+            i++;
+        }
+        
+        writer.writeUnsigned(removedCount);
+        int previousId = 0;
+        for (int r = 0; r < removedCount; r++) {
+            writer.writeUnsigned(removedIds[r] - previousId);
+            previousId = removedIds[r];
+        }
+        
+        writer.writeUnsigned(changedCount);
+        previousId = 0;
+        for (int c = 0; c < changedCount; c++) {
+            int index = changedIndices[c];
+            int mask = changedMasks[c];
+            int id = current.ids[index];
+            writer.writeUnsigned(id - previousId);
+            previousId = id;
+            writer.writeBits(mask, Snapshot.FIELD_COUNT);
+            
+            int baselineIndex = changedBaselineIndices[c];
+            int base = index * Snapshot.FIELD_COUNT;
+            int baselineBase = baselineIndex * Snapshot.FIELD_COUNT;
+            for (int field = 0; field < Snapshot.FIELD_COUNT; field++) {
+                if ((mask & (1 << field)) == 0) continue;
+                int value = current.values[base + field];
+                if (field == Snapshot.COLOR) {
+                    writer.writeBits(value, 32);
+                } else if (field == Snapshot.FLAGS) {
+                    writer.writeBits(value, 8);
+                } else {
+                    int reference = baselineIndex >= 0 ? baseline.values[baselineBase + field] : 0;
+                    writer.writeSigned(value - reference);
+                }
+            }
+        }
+        return writer.finish();
+    }
+    
+    private static int changeMask(int[] values, int index, int[] baselineValues, int baselineIndex) {
+        int mask = 0;
+        int base = index * Snapshot.FIELD_COUNT;
+        int baselineBase = baselineIndex * Snapshot.FIELD_COUNT;
+        for (int field = 0; field < Snapshot.FIELD_COUNT; field++) {
+            int reference = baselineValues != null ? baselineValues[baselineBase + field] : 0;
+            if (values[base + field] != reference) {
+                mask |= 1 << field;
+            }
+        }
+        return mask;
+    }
+    
+    // Returns false when the frame refers to a baseline that is no longer in the history; the caller keeps
+    // acknowledging its last good tick and the sender falls back to a full snapshot. Entry counts are checked
+    // against the bits left in the frame before anything is allocated, so a corrupt frame throws IOException.
+    public boolean decode(BitReader reader, IntFunction<Snapshot> history, Snapshot out) throws IOException {
+        int tick = (int) reader.readBits(32);
+        int baselineTick = (int) reader.readBits(32);
+        Snapshot baseline = null;
+        if (baselineTick != NO_BASELINE) {
+            baseline = history.apply(baselineTick);
+            if (baseline == null || baseline.tick != baselineTick) {
+                return false;
+            }
+        }
+        
+        int removedCount = (int) reader.readUnsigned();
+        // every removed id is at least one 8-bit varint
+        if (removedCount < 0 || removedCount > reader.remainingBits() / 8) {
+            throw new IOException("Corrupt snapshot " + tick + ": " + removedCount + " removed entries");
+        }
+        removedIds = ensure(removedIds, removedCount);
+        int previousId = 0;
+        for (int r = 0; r < removedCount; r++) {
+            previousId += (int) reader.readUnsigned();
+            removedIds[r] = previousId;
+        }
+        
+        int changedCount = (int) reader.readUnsigned();
+        // every changed entry is at least an 8-bit id varint plus its field mask
+        if (changedCount < 0 || changedCount > reader.remainingBits() / (8 + Snapshot.FIELD_COUNT)) {
+            throw new IOException("Corrupt snapshot " + tick + ": " + changedCount + " changed entries");
+        }
+        changedIds = ensure(changedIds, changedCount);
+        changedMasks = ensure(changedMasks, changedCount);
+        changedValues = ensure(changedValues, changedCount * Snapshot.FIELD_COUNT);
+        previousId = 0;
+        for (int c = 0; c < changedCount; c++) {
+            previousId += (int) reader.readUnsigned();
+            changedIds[c] = previousId;
+            int mask = (int) reader.readBits(Snapshot.FIELD_COUNT);
+            changedMasks[c] = mask;
+            int base = c * Snapshot.FIELD_COUNT;
+            for (int field = 0; field < Snapshot.FIELD_COUNT; field++) {
+                if ((mask & (1 << field)) == 0) {
+                    changedValues[base + field] = 0;
+                } else if (field == Snapshot.COLOR) {
+                    changedValues[base + field] = (int) reader.readBits(32);
+                } else if (field == Snapshot.FLAGS) {
+                    changedValues[base + field] = (int) reader.readBits(8);
+                } else {
+                    changedValues[base + field] = reader.readSigned();
+                }
+            }
+        }
+        
+        out.reset(tick);
+        int baselineCount = baseline != null ? baseline.count : 0;
+        int j = 0;
+        int r = 0;
+        int c = 0;
+        while (j < baselineCount || c < changedCount) {
+            int baselineId = j < baselineCount ? baseline.ids[j] : Integer.MAX_VALUE;
+            int changedId = c < changedCount ? changedIds[c] : Integer.MAX_VALUE;
+            if (baselineId < changedId) {
+                while (r < removedCount && removedIds[r] < baselineId) r++;
+                if (r < removedCount && removedIds[r] == baselineId) {
+                    j++;
+                    continue;
+                }
+                int base = out.append(baselineId) * Snapshot.FIELD_COUNT;
+                System.arraycopy(baseline.values, j * Snapshot.FIELD_COUNT, out.values, base, Snapshot.FIELD_COUNT);
+                j++;
+            } else {
+                int base = out.append(changedId) * Snapshot.FIELD_COUNT;
+                boolean existing = baselineId == changedId;
+                int mask = changedMasks[c];
+                for (int field = 0; field < Snapshot.FIELD_COUNT; field++) {
+                    int reference = existing ? baseline.values[j * Snapshot.FIELD_COUNT + field] : 0;
+                    int delta = changedValues[c * Snapshot.FIELD_COUNT + field];
+                    if ((mask & (1 << field)) == 0) {
+                        out.values[base + field] = reference;
+                    } else if (field == Snapshot.COLOR || field == Snapshot.FLAGS) {
+                        out.values[base + field] = delta;
+                    } else {
+                        out.values[base + field] = reference + delta;
+                    }
+                }
+                if (existing) {
+                    j++;
+                }
+                c++;
+            }
+        }
+        return true;
+    }
+    
+    private static int[] ensure(int[] array, int size) {
+        return size <= array.length ? array : Arrays.copyOf(array, Math.max(size, array.length * 2));
+    }
+}
@@ -0,0 +1,126 @@
+package com.gameengine.physics;
+
+import com.gameengine.components.PhysicsComponent;
+import com.gameengine.components.TransformComponent;
+import java.util.Arrays;
+
+public class BodyBuffer {
+    float[] positionX;
+    float[] positionY;
+    float[] velocityX;
+    float[] velocityY;
+    float[] accelerationX;
+    float[] accelerationY;
+    float[] friction;
+    private PhysicsComponent[] bodies;
+    private TransformComponent[] transforms;
+    private int count;
+    
+    public BodyBuffer() {
+        this(64);
+    }
+    
+    public BodyBuffer(int capacity) {
+        allocate(Math.max(1, capacity));
+    }
+    
+    private void allocate(int capacity) {
+        positionX = new float[capacity];
+        positionY = new float[capacity];
+        velocityX = new float[capacity];
+        velocityY = new float[capacity];
+        accelerationX = new float[capacity];
+        accelerationY = new float[capacity];
+        friction = new float[capacity];
+        bodies = new PhysicsComponent[capacity];
+        transforms = new TransformComponent[capacity];
+    }
+    
+    public void ensureCapacity(int capacity) {
+        if (capacity <= positionX.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, positionX.length * 2);
+        positionX = Arrays.copyOf(positionX, newCapacity);
+        positionY = Arrays.copyOf(positionY, newCapacity);
+        velocityX = Arrays.copyOf(velocityX, newCapacity);
+        velocityY = Arrays.copyOf(velocityY, newCapacity);
+        accelerationX = Arrays.copyOf(accelerationX, newCapacity);
+        accelerationY = Arrays.copyOf(accelerationY, newCapacity);
+        friction = Arrays.copyOf(friction, newCapacity);
+        bodies = Arrays.copyOf(bodies, newCapacity);
+        transforms = Arrays.copyOf(transforms, newCapacity);
+    }
+    
+    public void clear() {
+        Arrays.fill(bodies, 0, count, null);
+        Arrays.fill(transforms, 0, count, null);
+        count = 0;
+    }
+    
+    public boolean add(PhysicsComponent physics) {
+        TransformComponent transform = physics.getOwner().getComponent(TransformComponent.class);
+        if (transform == null) {
+            return false;
+        }
+        ensureCapacity(count + 1);
+        int i = count++;
+        positionX[i] = transform.getX();
+        positionY[i] = transform.getY();
+        velocityX[i] = physics.getVelocityX();
+        velocityY[i] = physics.getVelocityY();
+        accelerationX[i] = physics.getNetAccelerationX();
+        accelerationY[i] = physics.getNetAccelerationY();
+        friction[i] = physics.getFriction();
+        bodies[i] = physics;
+        transforms[i] = transform;
+        return true;
+    }
+    
+    public void writeBack(boolean integrated) {
+        for (int i = 0; i < count; i++) {
+            transforms[i].setPosition(positionX[i], positionY[i]);
+            bodies[i].setVelocity(velocityX[i], velocityY[i]);
+            if (integrated) {
+                bodies[i].clearAcceleration();
+                bodies[i].updateSleepState(accelerationX[i], accelerationY[i]);
+            }
+        }
+    }
+    
+    public int size() {
+        return count;
+    }
+    
+    public PhysicsComponent getBody(int index) {
+        return bodies[index];
+    }
+    
+    public float getPositionX(int index) {
+        return positionX[index];
+    }
+    
+    public float getPositionY(int index) {
+        return positionY[index];
+    }
+    
+    public float getVelocityX(int index) {
+        return velocityX[index];
+    }
+    
+    public float getVelocityY(int index) {
+        return velocityY[index];
+    }
+    
+    void set(int index, float px, float py, float vx, float vy, float ax, float ay, float f) {
+        ensureCapacity(index + 1);
+        positionX[index] = px;
+        positionY[index] = py;
+        velocityX[index] = vx;
+        velocityY[index] = vy;
+        accelerationX[index] = ax;
+        accelerationY[index] = ay;
+        friction[index] = f;
+        count = Math.max(count, index + 1);
+    }
+}
@@ -0,0 +1,9 @@
+package com.gameengine.physics;
+
+public interface PhysicsIntegrator {
+    void integrate(BodyBuffer bodies, float deltaTime);
+    
+    void bounce(BodyBuffer bodies, float minX, float minY, float maxX, float maxY);
+    
+    String getName();
+}
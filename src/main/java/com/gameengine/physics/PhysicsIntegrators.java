@@ -0,0 +1,78 @@
+package com.gameengine.physics;
+
+import java.util.Random;
+
+public final class PhysicsIntegrators {
+    public static final String SIMD_PROPERTY = "gameengine.simd";
+    
+    private static final PhysicsIntegrator SCALAR = new ScalarPhysicsIntegrator();
+    private static final PhysicsIntegrator DEFAULT = select();
+    
+    private PhysicsIntegrators() {
+    }
+    
+    public static PhysicsIntegrator scalar() {
+        return SCALAR;
+    }
+    
+    public static PhysicsIntegrator getDefault() {
+        return DEFAULT;
+    }
+    
+    private static PhysicsIntegrator select() {
+        if (!Boolean.parseBoolean(System.getProperty(SIMD_PROPERTY, "true"))) {
+            return SCALAR;
+        }
+        PhysicsIntegrator candidate;
+        try {
+            candidate = (PhysicsIntegrator) Class.forName("com.gameengine.physics.VectorPhysicsIntegrator")
+                .getDeclaredConstructor()
+                .newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // jdk.incubator.vector is not resolved (run without --add-modules)
+            return SCALAR;
+        }
+        if (!matchesScalar(candidate)) {
+            System.err.println("SIMD integrator disagrees with scalar results, using scalar integrator");
+            return SCALAR;
+        }
+        return candidate;
+    }
+    
+    static boolean matchesScalar(PhysicsIntegrator candidate) {
+        Random random = new Random(42);
+        int count = 67;
+        BodyBuffer expected = new BodyBuffer(count);
+        BodyBuffer actual = new BodyBuffer(count);
+        for (int i = 0; i < count; i++) {
+            float px = (random.nextFloat() - 0.1f) * 2000;
+            float py = (random.nextFloat() - 0.1f) * 1200;
+            float vx = (random.nextFloat() - 0.5f) * 500;
+            float vy = (random.nextFloat() - 0.5f) * 500;
+            float ax = (random.nextFloat() - 0.5f) * 50;
+            float ay = (random.nextFloat() - 0.5f) * 50;
+            float friction = random.nextFloat();
+            if (i % 11 == 0) {
+                px = -0.0f;
+                vx = 0.0f;
+            }
+            expected.set(i, px, py, vx, vy, ax, ay, friction);
+            actual.set(i, px, py, vx, vy, ax, ay, friction);
+        }
+        for (int step = 0; step < 4; step++) {
+            SCALAR.integrate(expected, 1 / 60f);
+            SCALAR.bounce(expected, 0, 0, 1905, 1065);
+            candidate.integrate(actual, 1 / 60f);
+            candidate.bounce(actual, 0, 0, 1905, 1065);
+        }
+        for (int i = 0; i < count; i++) {
+            if (Float.floatToRawIntBits(expected.positionX[i]) != Float.floatToRawIntBits(actual.positionX[i])
+                || Float.floatToRawIntBits(expected.positionY[i]) != Float.floatToRawIntBits(actual.positionY[i])
+                || Float.floatToRawIntBits(expected.velocityX[i]) != Float.floatToRawIntBits(actual.velocityX[i])
+                || Float.floatToRawIntBits(expected.velocityY[i]) != Float.floatToRawIntBits(actual.velocityY[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
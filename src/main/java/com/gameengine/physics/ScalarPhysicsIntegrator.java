@@ -0,0 +1,49 @@
+package com.gameengine.physics;
+
+public class ScalarPhysicsIntegrator implements PhysicsIntegrator {
+    @Override
+    public void integrate(BodyBuffer bodies, float deltaTime) {
+        integrate(bodies, 0, bodies.size(), deltaTime);
+    }
+    
+    static void integrate(BodyBuffer bodies, int start, int end, float deltaTime) {
+        float[] px = bodies.positionX;
+        float[] py = bodies.positionY;
+        float[] vx = bodies.velocityX;
+        float[] vy = bodies.velocityY;
+        float[] ax = bodies.accelerationX;
+        float[] ay = bodies.accelerationY;
+        float[] friction = bodies.friction;
+        for (int i = start; i < end; i++) {
+            vx[i] = (vx[i] + ax[i] * deltaTime) * friction[i];
+            vy[i] = (vy[i] + ay[i] * deltaTime) * friction[i];
+            px[i] = px[i] + vx[i] * deltaTime;
+            py[i] = py[i] + vy[i] * deltaTime;
+        }
+    }
+    
+    @Override
+    public void bounce(BodyBuffer bodies, float minX, float minY, float maxX, float maxY) {
+        bounce(bodies, 0, bodies.size(), minX, minY, maxX, maxY);
+    }
+    
+    static void bounce(BodyBuffer bodies, int start, int end, float minX, float minY, float maxX, float maxY) {
+        float[] px = bodies.positionX;
+        float[] py = bodies.positionY;
+        float[] vx = bodies.velocityX;
+        float[] vy = bodies.velocityY;
+        for (int i = start; i < end; i++) {
+            if (px[i] <= minX || px[i] >= maxX) vx[i] = -vx[i];
+            if (py[i] <= minY || py[i] >= maxY) vy[i] = -vy[i];
+            if (px[i] < minX) px[i] = minX;
+            if (py[i] < minY) py[i] = minY;
+            if (px[i] > maxX) px[i] = maxX;
+            if (py[i] > maxY) py[i] = maxY;
+        }
+    }
+    
+    @Override
+    public String getName() {
+        return "scalar";
+    }
+}
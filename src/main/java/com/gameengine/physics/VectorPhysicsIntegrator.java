@@ -0,0 +1,73 @@
+package com.gameengine.physics;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+public class VectorPhysicsIntegrator implements PhysicsIntegrator {
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+    
+    @Override
+    public void integrate(BodyBuffer bodies, float deltaTime) {
+        float[] px = bodies.positionX;
+        float[] py = bodies.positionY;
+        float[] vx = bodies.velocityX;
+        float[] vy = bodies.velocityY;
+        float[] ax = bodies.accelerationX;
+        float[] ay = bodies.accelerationY;
+        float[] friction = bodies.friction;
+        int count = bodies.size();
+        int bound = SPECIES.loopBound(count);
+        
+        // mul and add are kept as separate lane ops (no fma) so results match the scalar path bit for bit
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            FloatVector f = FloatVector.fromArray(SPECIES, friction, i);
+            FloatVector nvx = FloatVector.fromArray(SPECIES, vx, i)
+                .add(FloatVector.fromArray(SPECIES, ax, i).mul(deltaTime))
+                .mul(f);
+            FloatVector nvy = FloatVector.fromArray(SPECIES, vy, i)
+                .add(FloatVector.fromArray(SPECIES, ay, i).mul(deltaTime))
+                .mul(f);
+            nvx.intoArray(vx, i);
+            nvy.intoArray(vy, i);
+            FloatVector.fromArray(SPECIES, px, i).add(nvx.mul(deltaTime)).intoArray(px, i);
+            FloatVector.fromArray(SPECIES, py, i).add(nvy.mul(deltaTime)).intoArray(py, i);
+        }
+        ScalarPhysicsIntegrator.integrate(bodies, i, count, deltaTime);
+    }
+    
+    @Override
+    public void bounce(BodyBuffer bodies, float minX, float minY, float maxX, float maxY) {
+        float[] px = bodies.positionX;
+        float[] py = bodies.positionY;
+        float[] vx = bodies.velocityX;
+        float[] vy = bodies.velocityY;
+        int count = bodies.size();
+        int bound = SPECIES.loopBound(count);
+        
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            bounceAxis(px, vx, i, minX, maxX);
+            bounceAxis(py, vy, i, minY, maxY);
+        }
+        ScalarPhysicsIntegrator.bounce(bodies, i, count, minX, minY, maxX, maxY);
+    }
+    
+    private static void bounceAxis(float[] position, float[] velocity, int i, float min, float max) {
+        FloatVector p = FloatVector.fromArray(SPECIES, position, i);
+        FloatVector v = FloatVector.fromArray(SPECIES, velocity, i);
+        VectorMask<Float> outside = p.compare(VectorOperators.LE, min).or(p.compare(VectorOperators.GE, max));
+        v.blend(v.neg(), outside).intoArray(velocity, i);
+        // blend instead of min/max so -0.0 and NaN behave like the scalar comparisons
+        p = p.blend(min, p.compare(VectorOperators.LT, min));
+        p = p.blend(max, p.compare(VectorOperators.GT, max));
+        p.intoArray(position, i);
+    }
+    
+    @Override
+    public String getName() {
+        return "vector(" + SPECIES.length() + "x float)";
+    }
+}
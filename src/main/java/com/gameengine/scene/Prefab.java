@@ -0,0 +1,48 @@
+package com.gameengine.scene;
+
+import com.gameengine.core.Component;
+import com.gameengine.core.GameObject;
+import com.gameengine.core.Tag;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+public class Prefab {
+    private final String name;
+    private final Tag tag;
+    private final List<Supplier<? extends Component<?>>> components;
+    
+    public Prefab(String name, Tag tag) {
+        this.name = name;
+        this.tag = tag;
+        this.components = new ArrayList<>();
+    }
+    
+    // The supplier builds the component with its default values; every instance gets its own component
+    public <T extends Component<T>> Prefab with(Supplier<T> factory) {
+        components.add(factory);
+        return this;
+    }
+    
+    public GameObject instantiate() {
+        GameObject obj = new GameObject(name, tag);
+        Component<?>[] built = new Component<?>[components.size()];
+        for (int i = 0; i < built.length; i++) {
+            built[i] = components.get(i).get();
+        }
+        obj.addComponents(built);
+        return obj;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public Tag getTag() {
+        return tag;
+    }
+    
+    public int getComponentCount() {
+        return components.size();
+    }
+}
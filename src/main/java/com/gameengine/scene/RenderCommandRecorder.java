@@ -0,0 +1,143 @@
+package com.gameengine.scene;
+
+import com.gameengine.components.RenderComponent;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.core.GameObject;
+import com.gameengine.graphics.RenderCommandList;
+import com.gameengine.graphics.Renderer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class RenderCommandRecorder {
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 2048;
+    
+    private final Renderer renderer;
+    private RenderCommandList[] partitions;
+    private final RenderCommandList[] frames;
+    private int frameIndex;
+    private final List<Future<?>> futures;
+    private int parallelThreshold;
+    private ExecutorService executor;
+    private int executorThreads;
+    
+    public RenderCommandRecorder(Renderer renderer) {
+        this.renderer = renderer;
+        this.partitions = new RenderCommandList[]{new RenderCommandList()};
+        this.frames = new RenderCommandList[]{new RenderCommandList(), new RenderCommandList()};
+        this.futures = new ArrayList<>();
+        this.parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+    }
+    
+    // Records on the recorder's own pool once the scene reaches the parallel threshold. The pool's threads are
+    // daemons, so a recorder that is never shut down cannot keep the JVM alive after the game ends.
+    public RenderCommandList record(List<GameObject> objects, int threadCount) {
+        if (threadCount <= 1 || objects.size() < parallelThreshold) {
+            return record(objects, null, 1);
+        }
+        if (executor == null || executorThreads != threadCount) {
+            shutdown();
+            executor = Executors.newFixedThreadPool(threadCount, task -> {
+                Thread thread = new Thread(task, "render-recorder");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executorThreads = threadCount;
+        }
+        return record(objects, executor, threadCount);
+    }
+    
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+    
+    // Records every RenderComponent bound to this recorder's renderer (unbound ones when it has none) and marks it
+    // batch-rendered so the object's own render() skips it. Objects are split into contiguous ranges, one command
+    // list per range, and the lists are concatenated in range order before sorting, so the result does not depend
+    // on thread timing. The returned list alternates between two buffers and stays intact for one more frame.
+    public RenderCommandList record(List<GameObject> objects, ExecutorService executor, int threadCount) {
+        int size = objects.size();
+        if (executor == null || threadCount <= 1 || size < parallelThreshold) {
+            partitions[0].clear();
+            recordRange(objects, 0, size, partitions[0]);
+            return merge(1);
+        }
+        
+        if (partitions.length < threadCount) {
+            int oldLength = partitions.length;
+            partitions = Arrays.copyOf(partitions, threadCount);
+            for (int i = oldLength; i < threadCount; i++) {
+                partitions[i] = new RenderCommandList();
+            }
+        }
+        int batchSize = (size + threadCount - 1) / threadCount;
+        int used = 0;
+        futures.clear();
+        for (int p = 0; p < threadCount; p++) {
+            final int start = p * batchSize;
+            final int end = Math.min(start + batchSize, size);
+            if (start >= end) break;
+            final RenderCommandList list = partitions[p];
+            list.clear();
+            futures.add(executor.submit(() -> recordRange(objects, start, end, list)));
+            used++;
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+        futures.clear();
+        return merge(used);
+    }
+    
+    private void recordRange(List<GameObject> objects, int start, int end, RenderCommandList out) {
+        for (int i = start; i < end; i++) {
+            GameObject obj = objects.get(i);
+            if (!obj.isActive()) continue;
+            RenderComponent render = obj.getComponent(RenderComponent.class);
+            if (render == null || !render.isEnabled() || render.getRenderer() != renderer) continue;
+            TransformComponent transform = obj.getComponent(TransformComponent.class);
+            if (transform == null) continue;
+            render.setBatchRendered(true);
+            if (render.isVisible()) {
+                render.record(out, transform);
+            }
+        }
+    }
+    
+    private RenderCommandList merge(int used) {
+        frameIndex ^= 1;
+        RenderCommandList merged = frames[frameIndex];
+        merged.clear();
+        for (int p = 0; p < used; p++) {
+            merged.addAll(partitions[p]);
+        }
+        merged.sort();
+        return merged;
+    }
+    
+    public RenderCommandList getLastCommands() {
+        return frames[frameIndex];
+    }
+    
+    public Renderer getRenderer() {
+        return renderer;
+    }
+    
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+    
+    public void setParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = Math.max(1, parallelThreshold);
+    }
+}
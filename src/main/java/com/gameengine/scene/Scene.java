@@ -1,23 +1,72 @@
 package com.gameengine.scene;
 
+import com.gameengine.collision.DynamicAabbTree;
+import com.gameengine.components.PhysicsComponent;
 import com.gameengine.core.GameObject;
 import com.gameengine.core.Component;
+import com.gameengine.core.EventBus;
+import com.gameengine.core.Tag;
+import com.gameengine.graphics.RenderCommandList;
+import com.gameengine.graphics.Renderer;
+import com.gameengine.metrics.Histogram;
+import com.gameengine.metrics.Meter;
+import com.gameengine.metrics.MetricsRegistry;
+import com.gameengine.physics.BodyBuffer;
+import com.gameengine.physics.PhysicsIntegrator;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 public class Scene {
+    public static final int PARALLEL_UPDATE_THRESHOLD = 64;
+    
     private String name;
     private List<GameObject> gameObjects;
-    private List<GameObject> objectsToAdd;
-    private List<GameObject> objectsToRemove;
+    private SceneCommandBuffer commandBuffer;
+    private List<GameObject> pendingRemovals;
+    private boolean stableOrdering;
     private boolean initialized;
+    private volatile int structureEpoch;
+    private SceneView view;
+    private TagIndex tagIndex;
+    private PhysicsIntegrator physicsIntegrator;
+    private BodyBuffer bodyBuffer;
+    private SpatialIndex spatialIndex;
+    private RenderCommandRecorder renderRecorder;
+    private TransformBuffer transformBuffer;
+    private Renderer transformRenderer;
+    private boolean parallelUpdate;
+    private int updateThreadCount;
+    private ExecutorService updateExecutor;
+    private final List<GameObject> parallelObjects;
+    private final List<GameObject> serialObjects;
+    private final List<Future<?>> updateFutures;
+    private final List<GameObject> spawnScratch;
+    private final EventBus eventBus;
+    private MetricsRegistry metrics;
+    private Meter addedMeter;
+    private Meter removedMeter;
+    private Histogram updateTimer;
     
     public Scene(String name) {
         this.name = name;
         this.gameObjects = new ArrayList<>();
-        this.objectsToAdd = new ArrayList<>();
-        this.objectsToRemove = new ArrayList<>();
+        this.commandBuffer = new SceneCommandBuffer();
+        this.pendingRemovals = new ArrayList<>();
+        this.tagIndex = new TagIndex();
+        this.stableOrdering = true;
         this.initialized = false;
+        this.updateThreadCount = Math.max(2, Runtime.getRuntime().availableProcessors() - 1);
+        this.parallelObjects = new ArrayList<>();
+        this.serialObjects = new ArrayList<>();
+        this.updateFutures = new ArrayList<>();
+        this.spawnScratch = new ArrayList<>();
+        this.eventBus = new EventBus();
     }
     
     public void initialize() {
@@ -28,31 +77,298 @@ public class Scene {
     }
     
     public void update(float deltaTime) {
-        for (GameObject obj : objectsToAdd) {
-            gameObjects.add(obj);
-            if (initialized) {
-                obj.initialize();
-            }
+        long start = updateTimer != null ? System.nanoTime() : 0;
+        applyCommands();
+        
+        if (physicsIntegrator != null) {
+            integratePhysics(deltaTime);
         }
-        objectsToAdd.clear();
         
-        for (GameObject obj : objectsToRemove) {
-            gameObjects.remove(obj);
+        // Compaction finishes before any object updates, so a view taken during update never sees a half-shifted list
+        compact();
+        if (parallelUpdate && gameObjects.size() >= PARALLEL_UPDATE_THRESHOLD) {
+            updateParallel(deltaTime);
+        } else {
+            updateSerial(deltaTime);
         }
-        objectsToRemove.clear();
         
-        Iterator<GameObject> iterator = gameObjects.iterator();
-        while (iterator.hasNext()) {
-            GameObject obj = iterator.next();
+        if (spatialIndex != null) {
+            spatialIndex.update(gameObjects, deltaTime);
+        }
+        eventBus.dispatch();
+        if (updateTimer != null) {
+            updateTimer.record(System.nanoTime() - start);
+        }
+    }
+    
+    private void compact() {
+        int size = gameObjects.size();
+        int write = 0;
+        boolean compacting = false;
+        for (int i = 0; i < size; i++) {
+            GameObject obj = gameObjects.get(i);
+            if (obj.isActive()) {
+                if (write != i) {
+                    gameObjects.set(write, obj);
+                }
+                obj.setSceneIndex(write);
+                write++;
+            } else {
+                if (!compacting) {
+                    compacting = true;
+                    structureEpoch++;
+                }
+                obj.setSceneIndex(-1);
+                tagIndex.remove(obj);
+                unindex(obj);
+            }
+        }
+        if (removedMeter != null && write < size) {
+            removedMeter.mark(size - write);
+        }
+        truncate(write);
+    }
+    
+    private void updateSerial(float deltaTime) {
+        for (int i = 0; i < gameObjects.size(); i++) {
+            GameObject obj = gameObjects.get(i);
             if (obj.isActive()) {
                 obj.update(deltaTime);
+            }
+        }
+    }
+    
+    private void updateParallel(float deltaTime) {
+        parallelObjects.clear();
+        serialObjects.clear();
+        for (int i = 0; i < gameObjects.size(); i++) {
+            GameObject obj = gameObjects.get(i);
+            if (obj.isThreadSafeUpdate()) {
+                parallelObjects.add(obj);
             } else {
-                iterator.remove();
+                serialObjects.add(obj);
+            }
+        }
+        
+        ExecutorService executor = getUpdateExecutor();
+        int batchSize = Math.max(1, parallelObjects.size() / updateThreadCount + 1);
+        updateFutures.clear();
+        for (int i = 0; i < parallelObjects.size(); i += batchSize) {
+            final int start = i;
+            final int end = Math.min(i + batchSize, parallelObjects.size());
+            updateFutures.add(executor.submit(() -> {
+                for (int j = start; j < end; j++) {
+                    parallelObjects.get(j).update(deltaTime);
+                }
+            }));
+        }
+        for (Future<?> future : updateFutures) {
+            try {
+                future.get();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+        updateFutures.clear();
+        
+        for (int i = 0; i < serialObjects.size(); i++) {
+            serialObjects.get(i).update(deltaTime);
+        }
+        parallelObjects.clear();
+        serialObjects.clear();
+    }
+    
+    private ExecutorService getUpdateExecutor() {
+        if (updateExecutor == null || updateExecutor.isShutdown()) {
+            updateExecutor = Executors.newFixedThreadPool(updateThreadCount);
+        }
+        return updateExecutor;
+    }
+    
+    private void shutdownUpdateExecutor() {
+        if (updateExecutor != null && !updateExecutor.isShutdown()) {
+            updateExecutor.shutdown();
+            try {
+                if (!updateExecutor.awaitTermination(1, TimeUnit.SECONDS)) {
+                    updateExecutor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                updateExecutor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+        updateExecutor = null;
+    }
+    
+    private void integratePhysics(float deltaTime) {
+        bodyBuffer.clear();
+        for (int i = 0; i < gameObjects.size(); i++) {
+            GameObject obj = gameObjects.get(i);
+            if (!obj.isActive()) continue;
+            PhysicsComponent physics = obj.getComponent(PhysicsComponent.class);
+            if (physics == null || !physics.isEnabled() || physics.isSleeping()) continue;
+            if (bodyBuffer.add(physics)) {
+                physics.setBatchIntegrated(true);
+            }
+        }
+        physicsIntegrator.integrate(bodyBuffer, deltaTime);
+        bodyBuffer.writeBack(true);
+        bodyBuffer.clear();
+    }
+    
+    public void applyCommands() {
+        SceneCommandBuffer.Command command;
+        while ((command = commandBuffer.poll()) != null) {
+            GameObject target = command.getTarget();
+            switch (command.getType()) {
+                case SPAWN:
+                    // Removals queued earlier in the batch must land first, or remove-then-spawn of the same
+                    // object would see it still indexed, skip the spawn and then drop it
+                    if (!pendingRemovals.isEmpty()) {
+                        removePending();
+                    }
+                    if (target.getSceneIndex() < 0) {
+                        structureEpoch++;
+                        target.setSceneIndex(gameObjects.size());
+                        gameObjects.add(target);
+                        tagIndex.add(target);
+                        if (addedMeter != null) {
+                            addedMeter.mark();
+                        }
+                        if (initialized) {
+                            target.initialize();
+                        }
+                    }
+                    break;
+                case SPAWN_BATCH:
+                    if (!pendingRemovals.isEmpty()) {
+                        removePending();
+                    }
+                    spawnAll(command.getBatch());
+                    break;
+                case DESTROY:
+                    target.destroy();
+                    pendingRemovals.add(target);
+                    break;
+                case REMOVE:
+                    pendingRemovals.add(target);
+                    break;
+                case ADD_COMPONENT:
+                    command.run();
+                    break;
+            }
+        }
+        
+        if (!pendingRemovals.isEmpty()) {
+            removePending();
+        }
+    }
+    
+    private void spawnAll(List<GameObject> batch) {
+        spawnScratch.clear();
+        for (int i = 0; i < batch.size(); i++) {
+            GameObject obj = batch.get(i);
+            if (obj.getSceneIndex() < 0) {
+                spawnScratch.add(obj);
+            }
+        }
+        if (spawnScratch.isEmpty()) return;
+        
+        structureEpoch++;
+        if (gameObjects instanceof ArrayList) {
+            ((ArrayList<GameObject>) gameObjects).ensureCapacity(gameObjects.size() + spawnScratch.size());
+        }
+        for (int i = 0; i < spawnScratch.size(); i++) {
+            GameObject obj = spawnScratch.get(i);
+            obj.setSceneIndex(gameObjects.size());
+            gameObjects.add(obj);
+        }
+        tagIndex.addAll(spawnScratch);
+        if (addedMeter != null) {
+            addedMeter.mark(spawnScratch.size());
+        }
+        if (initialized) {
+            for (int i = 0; i < spawnScratch.size(); i++) {
+                spawnScratch.get(i).initialize();
             }
         }
+        spawnScratch.clear();
+    }
+    
+    private void removePending() {
+        structureEpoch++;
+        int sizeBefore = gameObjects.size();
+        if (stableOrdering) {
+            for (GameObject obj : pendingRemovals) {
+                int index = obj.getSceneIndex();
+                if (index >= 0 && index < gameObjects.size() && gameObjects.get(index) == obj) {
+                    gameObjects.set(index, null);
+                    obj.setSceneIndex(-1);
+                    tagIndex.remove(obj);
+                    unindex(obj);
+                }
+            }
+            int size = gameObjects.size();
+            int write = 0;
+            for (int i = 0; i < size; i++) {
+                GameObject obj = gameObjects.get(i);
+                if (obj != null) {
+                    if (write != i) {
+                        gameObjects.set(write, obj);
+                        obj.setSceneIndex(write);
+                    }
+                    write++;
+                }
+            }
+            truncate(write);
+        } else {
+            for (GameObject obj : pendingRemovals) {
+                int index = obj.getSceneIndex();
+                if (index < 0 || index >= gameObjects.size() || gameObjects.get(index) != obj) {
+                    continue;
+                }
+                GameObject last = gameObjects.remove(gameObjects.size() - 1);
+                if (last != obj) {
+                    gameObjects.set(index, last);
+                    last.setSceneIndex(index);
+                }
+                obj.setSceneIndex(-1);
+                tagIndex.remove(obj);
+                unindex(obj);
+            }
+        }
+        pendingRemovals.clear();
+        if (removedMeter != null) {
+            removedMeter.mark(sizeBefore - gameObjects.size());
+        }
+    }
+    
+    private void unindex(GameObject obj) {
+        if (spatialIndex != null) {
+            spatialIndex.remove(obj);
+        }
+    }
+    
+    private void truncate(int size) {
+        if (size < gameObjects.size()) {
+            gameObjects.subList(size, gameObjects.size()).clear();
+        }
     }
     
     public void render() {
+        if (transformBuffer != null) {
+            // with parallel recording on, the buffer is only published and the recorder does the drawing
+            transformBuffer.publish(gameObjects, renderRecorder != null ? null : transformRenderer);
+            if (transformRenderer != null && renderRecorder == null) {
+                transformBuffer.draw(transformRenderer);
+            }
+        }
+        if (renderRecorder != null) {
+            RenderCommandList commands = renderRecorder.record(gameObjects, updateThreadCount);
+            if (renderRecorder.getRenderer() != null) {
+                renderRecorder.getRenderer().submit(commands);
+            }
+        }
         for (GameObject obj : gameObjects) {
             if (obj.isActive()) {
                 obj.render();
@@ -61,7 +377,219 @@ public class Scene {
     }
     
     public void addGameObject(GameObject gameObject) {
-        objectsToAdd.add(gameObject);
+        commandBuffer.spawn(gameObject);
+    }
+    
+    // Instantiates the whole batch up front and hands it to the scene as a single command, so the scene list and
+    // the tag/name index grow once and the structure epoch moves once, however large the wave is
+    public List<GameObject> spawnBatch(Prefab prefab, int count, ObjIntConsumer<GameObject> initializer) {
+        List<GameObject> batch = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            GameObject obj = prefab.instantiate();
+            if (initializer != null) {
+                initializer.accept(obj, i);
+            }
+            batch.add(obj);
+        }
+        commandBuffer.spawnBatch(batch);
+        return batch;
+    }
+    
+    public void removeGameObject(GameObject gameObject) {
+        commandBuffer.remove(gameObject);
+    }
+    
+    public void destroyGameObject(GameObject gameObject) {
+        commandBuffer.destroy(gameObject);
+    }
+    
+    // Registers com.gameengine:type=Scene,name=<scene name> with live entity count, spawn/removal rates and
+    // update time percentiles
+    public MetricsRegistry enableMetrics() {
+        if (metrics != null) return metrics;
+        MetricsRegistry registry = new MetricsRegistry("Scene", name);
+        registry.gauge("LiveEntities", () -> gameObjects.size());
+        registry.gauge("PendingEvents", eventBus::getPendingCount);
+        Meter added = registry.meter("ObjectsAdded");
+        Meter removed = registry.meter("ObjectsRemoved");
+        Histogram timer = registry.timer("UpdateTime");
+        registry.register();
+        metrics = registry;
+        addedMeter = added;
+        removedMeter = removed;
+        updateTimer = timer;
+        return registry;
+    }
+    
+    public void disableMetrics() {
+        if (metrics == null) return;
+        metrics.unregister();
+        metrics = null;
+        addedMeter = null;
+        removedMeter = null;
+        updateTimer = null;
+    }
+    
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+    
+    // Events published during the frame, from any thread, reach their listeners at the end of update()
+    public EventBus getEventBus() {
+        return eventBus;
+    }
+    
+    public SceneCommandBuffer getCommandBuffer() {
+        return commandBuffer;
+    }
+    
+    public PhysicsIntegrator getPhysicsIntegrator() {
+        return physicsIntegrator;
+    }
+    
+    public void setPhysicsIntegrator(PhysicsIntegrator physicsIntegrator) {
+        this.physicsIntegrator = physicsIntegrator;
+        if (physicsIntegrator != null && bodyBuffer == null) {
+            bodyBuffer = new BodyBuffer();
+        }
+    }
+    
+    // With a renderer, render() publishes the frame and draws every RenderComponent bound to that renderer straight
+    // from the buffer; objects still get render() for anything else they draw. Pass null for a headless scene and
+    // call publishTransforms() whenever consumers should see a new frame.
+    public TransformBuffer enableTransformBuffer(Renderer renderer) {
+        if (transformBuffer == null) {
+            transformBuffer = new TransformBuffer(Math.max(gameObjects.size(), 256));
+        }
+        transformRenderer = renderer;
+        return transformBuffer;
+    }
+    
+    public void disableTransformBuffer() {
+        transformBuffer = null;
+        transformRenderer = null;
+    }
+    
+    public TransformBuffer getTransformBuffer() {
+        return transformBuffer;
+    }
+    
+    public void publishTransforms() {
+        if (transformBuffer != null) {
+            transformBuffer.publish(gameObjects, null);
+        }
+    }
+    
+    // RenderComponents bound to the renderer are recorded into per-thread command lists on the recorder's own daemon
+    // pool once there are enough objects, merged, sorted by layer and submitted as one list. Objects still get render()
+    // for anything else they draw. With a null renderer, unbound components are recorded and nothing is submitted.
+    public RenderCommandRecorder enableParallelRender(Renderer renderer) {
+        if (renderRecorder == null || renderRecorder.getRenderer() != renderer) {
+            disableParallelRender();
+            renderRecorder = new RenderCommandRecorder(renderer);
+        }
+        return renderRecorder;
+    }
+    
+    public void disableParallelRender() {
+        if (renderRecorder != null) {
+            renderRecorder.shutdown();
+        }
+        renderRecorder = null;
+    }
+    
+    public RenderCommandRecorder getRenderRecorder() {
+        return renderRecorder;
+    }
+    
+    // Keeps a dynamic AABB tree of every object with a transform, refreshed at the end of each update(). Objects
+    // moved by gameplay code after that are seen at their old place until updateSpatialIndex() or the next update.
+    public SpatialIndex enableSpatialIndex() {
+        return enableSpatialIndex(DynamicAabbTree.DEFAULT_MARGIN);
+    }
+    
+    public SpatialIndex enableSpatialIndex(float margin) {
+        if (spatialIndex == null) {
+            spatialIndex = new SpatialIndex(margin);
+            spatialIndex.update(gameObjects, 0);
+        }
+        return spatialIndex;
+    }
+    
+    public void disableSpatialIndex() {
+        if (spatialIndex == null) return;
+        spatialIndex.clear(gameObjects);
+        spatialIndex = null;
+    }
+    
+    public SpatialIndex getSpatialIndex() {
+        return spatialIndex;
+    }
+    
+    public void updateSpatialIndex() {
+        requireSpatialIndex().update(gameObjects, 0);
+    }
+    
+    // Refreshes just the objects gameplay code moved since the last update; ones not in this scene are ignored
+    public void updateSpatialIndex(List<GameObject> moved) {
+        SpatialIndex index = requireSpatialIndex();
+        for (int i = 0; i < moved.size(); i++) {
+            GameObject obj = moved.get(i);
+            int sceneIndex = obj.getSceneIndex();
+            if (sceneIndex >= 0 && sceneIndex < gameObjects.size() && gameObjects.get(sceneIndex) == obj) {
+                index.update(obj, 0);
+            }
+        }
+    }
+    
+    public List<GameObject> queryRadius(float x, float y, float radius, List<GameObject> result) {
+        return requireSpatialIndex().queryRadius(x, y, radius, result);
+    }
+    
+    public List<GameObject> queryRect(float x0, float y0, float x1, float y1, List<GameObject> result) {
+        return requireSpatialIndex().queryRect(x0, y0, x1, y1, result);
+    }
+    
+    public SpatialIndex.RaycastHit raycast(float x0, float y0, float x1, float y1, Predicate<GameObject> filter) {
+        return requireSpatialIndex().raycast(x0, y0, x1, y1, filter);
+    }
+    
+    public GameObject nearest(float x, float y, float maxDistance, Predicate<GameObject> filter) {
+        return requireSpatialIndex().nearest(x, y, maxDistance, filter);
+    }
+    
+    private SpatialIndex requireSpatialIndex() {
+        if (spatialIndex == null) {
+            throw new IllegalStateException("Spatial index is not enabled for scene " + name);
+        }
+        return spatialIndex;
+    }
+    
+    public boolean isParallelUpdate() {
+        return parallelUpdate;
+    }
+    
+    public void setParallelUpdate(boolean parallelUpdate) {
+        this.parallelUpdate = parallelUpdate;
+        if (!parallelUpdate) {
+            shutdownUpdateExecutor();
+        }
+    }
+    
+    public void setParallelUpdate(boolean parallelUpdate, int threadCount) {
+        if (threadCount != updateThreadCount) {
+            shutdownUpdateExecutor();
+            updateThreadCount = Math.max(1, threadCount);
+        }
+        setParallelUpdate(parallelUpdate);
+    }
+    
+    public boolean isStableOrdering() {
+        return stableOrdering;
+    }
+    
+    public void setStableOrdering(boolean stableOrdering) {
+        this.stableOrdering = stableOrdering;
     }
     
     public <T extends Component<T>> List<GameObject> findGameObjectsByComponent(Class<T> componentType) {
@@ -78,9 +606,21 @@ public class Scene {
     }
     
     public void clear() {
+        structureEpoch++;
+        if (spatialIndex != null) {
+            spatialIndex.clear(gameObjects);
+        }
+        for (GameObject obj : gameObjects) {
+            obj.setSceneIndex(-1);
+        }
         gameObjects.clear();
-        objectsToAdd.clear();
-        objectsToRemove.clear();
+        tagIndex.clear();
+        commandBuffer.clear();
+        pendingRemovals.clear();
+        shutdownUpdateExecutor();
+        if (renderRecorder != null) {
+            renderRecorder.shutdown();
+        }
     }
     
     public String getName() {
@@ -90,4 +630,38 @@ public class Scene {
     public List<GameObject> getGameObjects() {
         return new ArrayList<>(gameObjects);
     }
+    
+    public SceneView getObjects() {
+        SceneView current = view;
+        int epoch = structureEpoch;
+        if (current == null || current.getEpoch() != epoch) {
+            current = new SceneView(this, gameObjects, epoch);
+            view = current;
+        }
+        return current;
+    }
+    
+    public List<GameObject> findByTag(Tag tag) {
+        return tagIndex.findByTag(tag);
+    }
+    
+    public GameObject findFirstByTag(Tag tag) {
+        return tagIndex.findFirstByTag(tag);
+    }
+    
+    public List<GameObject> findByName(String name) {
+        return tagIndex.findByName(name);
+    }
+    
+    public GameObject findFirstByName(String name) {
+        return tagIndex.findFirstByName(name);
+    }
+    
+    public int getObjectCount() {
+        return gameObjects.size();
+    }
+    
+    public int getStructureEpoch() {
+        return structureEpoch;
+    }
 }
@@ -0,0 +1,90 @@
+package com.gameengine.scene;
+
+import com.gameengine.core.Component;
+import com.gameengine.core.GameObject;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+public class SceneCommandBuffer {
+    public enum CommandType {
+        SPAWN,
+        SPAWN_BATCH,
+        REMOVE,
+        DESTROY,
+        ADD_COMPONENT
+    }
+    
+    public static class Command {
+        private final CommandType type;
+        private final GameObject target;
+        private final Runnable action;
+        private final List<GameObject> batch;
+        
+        private Command(CommandType type, GameObject target, Runnable action) {
+            this(type, target, action, null);
+        }
+        
+        private Command(CommandType type, GameObject target, Runnable action, List<GameObject> batch) {
+            this.type = type;
+            this.target = target;
+            this.action = action;
+            this.batch = batch;
+        }
+        
+        public CommandType getType() {
+            return type;
+        }
+        
+        public GameObject getTarget() {
+            return target;
+        }
+        
+        public List<GameObject> getBatch() {
+            return batch;
+        }
+        
+        void run() {
+            if (action != null) {
+                action.run();
+            }
+        }
+    }
+    
+    private final ConcurrentLinkedQueue<Command> commands;
+    
+    public SceneCommandBuffer() {
+        this.commands = new ConcurrentLinkedQueue<>();
+    }
+    
+    public void spawn(GameObject gameObject) {
+        commands.add(new Command(CommandType.SPAWN, gameObject, null));
+    }
+    
+    public void spawnBatch(List<GameObject> gameObjects) {
+        commands.add(new Command(CommandType.SPAWN_BATCH, null, null, gameObjects));
+    }
+    
+    public void remove(GameObject gameObject) {
+        commands.add(new Command(CommandType.REMOVE, gameObject, null));
+    }
+    
+    public void destroy(GameObject gameObject) {
+        commands.add(new Command(CommandType.DESTROY, gameObject, null));
+    }
+    
+    public <T extends Component<T>> void addComponent(GameObject gameObject, T component) {
+        commands.add(new Command(CommandType.ADD_COMPONENT, gameObject, () -> gameObject.addComponent(component)));
+    }
+    
+    Command poll() {
+        return commands.poll();
+    }
+    
+    public boolean isEmpty() {
+        return commands.isEmpty();
+    }
+    
+    public void clear() {
+        commands.clear();
+    }
+}
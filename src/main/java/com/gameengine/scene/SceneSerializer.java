@@ -0,0 +1,306 @@
+package com.gameengine.scene;
+
+import com.gameengine.components.PhysicsComponent;
+import com.gameengine.components.RenderComponent;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.core.Component;
+import com.gameengine.core.GameObject;
+import com.gameengine.core.Tag;
+import com.gameengine.graphics.Renderer;
+import com.gameengine.math.Vector2;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class SceneSerializer {
+    public static final int MAGIC = 0x4E435347;
+    public static final int VERSION = 1;
+    
+    private static final int HAS_TRANSFORM = 1;
+    private static final int HAS_PHYSICS = 1 << 1;
+    private static final int HAS_RENDER = 1 << 2;
+    private static final int PHYSICS_GRAVITY = 1;
+    private static final int PHYSICS_SLEEP = 1 << 1;
+    private static final int RENDER_VISIBLE = 1 << 7;
+    private static final int TRANSFORM_COLUMNS = 5;
+    private static final int PHYSICS_COLUMNS = 6;
+    private static final int RENDER_COLUMNS = 6;
+    private static final int BYTES_PER_OBJECT = 1 + 4 + 4 + 1 + 1
+        + (TRANSFORM_COLUMNS + PHYSICS_COLUMNS + RENDER_COLUMNS) * 4;
+    
+    private SceneSerializer() {
+    }
+    
+    public static void save(Scene scene, Path path) throws IOException {
+        save(scene.getObjects(), path);
+    }
+    
+    // Column-major layout: every field of every object is stored as one contiguous little-endian array, so the
+    // loader pulls each column out of the mapping with a single bulk copy instead of parsing entity by entity.
+    // Only component data is stored; behaviour added by GameObject subclasses has to be re-attached by the caller.
+    public static void save(List<GameObject> objects, Path path) throws IOException {
+        List<GameObject> saved = new ArrayList<>();
+        for (int i = 0; i < objects.size(); i++) {
+            if (objects.get(i).isActive()) {
+                saved.add(objects.get(i));
+            }
+        }
+        int count = saved.size();
+        
+        Map<String, Integer> stringIndex = new HashMap<>();
+        List<byte[]> strings = new ArrayList<>();
+        byte[] masks = new byte[count];
+        byte[] physicsFlags = new byte[count];
+        byte[] renderInfo = new byte[count];
+        int[] names = new int[count];
+        int[] tags = new int[count];
+        float[][] transform = new float[TRANSFORM_COLUMNS][count];
+        float[][] physics = new float[PHYSICS_COLUMNS][count];
+        float[][] render = new float[RENDER_COLUMNS][count];
+        
+        for (int i = 0; i < count; i++) {
+            GameObject obj = saved.get(i);
+            names[i] = intern(obj.getName(), stringIndex, strings);
+            tags[i] = intern(obj.getTag() != null ? obj.getTag().getName() : null, stringIndex, strings);
+            int mask = 0;
+            
+            TransformComponent t = obj.getComponent(TransformComponent.class);
+            if (t != null) {
+                mask |= HAS_TRANSFORM;
+                transform[0][i] = t.getX();
+                transform[1][i] = t.getY();
+                transform[2][i] = t.getScale().x;
+                transform[3][i] = t.getScale().y;
+                transform[4][i] = t.getRotation();
+            }
+            
+            PhysicsComponent p = obj.getComponent(PhysicsComponent.class);
+            if (p != null) {
+                mask |= HAS_PHYSICS;
+                physics[0][i] = p.getVelocityX();
+                physics[1][i] = p.getVelocityY();
+                physics[2][i] = p.getMass();
+                physics[3][i] = p.getFriction();
+                physics[4][i] = p.getGravity().x;
+                physics[5][i] = p.getGravity().y;
+                physicsFlags[i] = (byte) ((p.isUseGravity() ? PHYSICS_GRAVITY : 0) | (p.isAllowSleep() ? PHYSICS_SLEEP : 0));
+            }
+            
+            RenderComponent r = obj.getComponent(RenderComponent.class);
+            if (r != null) {
+                mask |= HAS_RENDER;
+                render[0][i] = r.getSize().x;
+                render[1][i] = r.getSize().y;
+                render[2][i] = r.getColor().r;
+                render[3][i] = r.getColor().g;
+                render[4][i] = r.getColor().b;
+                render[5][i] = r.getColor().a;
+                renderInfo[i] = (byte) (r.getRenderType().ordinal() | (r.isVisible() ? RENDER_VISIBLE : 0));
+            }
+            masks[i] = (byte) mask;
+        }
+        
+        long size = 16L + (long) count * BYTES_PER_OBJECT;
+        for (byte[] string : strings) {
+            size += 4 + string.length;
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Scene too large to save in one file: " + size + " bytes");
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect((int) size).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(count).putInt(strings.size());
+        for (byte[] string : strings) {
+            buffer.putInt(string.length).put(string);
+        }
+        buffer.put(masks);
+        putInts(buffer, names, count);
+        putInts(buffer, tags, count);
+        for (float[] column : transform) {
+            putFloats(buffer, column, count);
+        }
+        for (float[] column : physics) {
+            putFloats(buffer, column, count);
+        }
+        buffer.put(physicsFlags);
+        for (float[] column : render) {
+            putFloats(buffer, column, count);
+        }
+        buffer.put(renderInfo);
+        buffer.flip();
+        
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+    
+    private static int intern(String value, Map<String, Integer> index, List<byte[]> strings) {
+        if (value == null) return -1;
+        Integer existing = index.get(value);
+        if (existing != null) return existing;
+        int id = strings.size();
+        strings.add(value.getBytes(StandardCharsets.UTF_8));
+        index.put(value, id);
+        return id;
+    }
+    
+    private static void putInts(ByteBuffer buffer, int[] values, int count) {
+        buffer.asIntBuffer().put(values, 0, count);
+        buffer.position(buffer.position() + count * 4);
+    }
+    
+    private static void putFloats(ByteBuffer buffer, float[] values, int count) {
+        buffer.asFloatBuffer().put(values, 0, count);
+        buffer.position(buffer.position() + count * 4);
+    }
+    
+    public static List<GameObject> load(Path path, Scene scene, Renderer renderer) throws IOException {
+        List<GameObject> objects = load(path);
+        for (int i = 0; i < objects.size(); i++) {
+            GameObject obj = objects.get(i);
+            if (renderer != null) {
+                RenderComponent render = obj.getComponent(RenderComponent.class);
+                if (render != null) {
+                    render.setRenderer(renderer);
+                }
+            }
+            scene.addGameObject(obj);
+        }
+        return objects;
+    }
+    
+    public static List<GameObject> load(Path path) throws IOException {
+        MappedByteBuffer map;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            map = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        map.order(ByteOrder.LITTLE_ENDIAN);
+        if (map.remaining() < 16 || map.getInt() != MAGIC) {
+            throw new IOException("Not a scene file: " + path);
+        }
+        int version = map.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported scene format version " + version);
+        }
+        int count = map.getInt();
+        int stringCount = map.getInt();
+        // Every string costs at least its 4-byte length prefix, so a count the file cannot hold is corrupt
+        if (count < 0 || stringCount < 0 || stringCount > map.remaining() / 4) {
+            throw new IOException("Corrupt scene header: " + count + " objects, " + stringCount + " strings");
+        }
+        
+        String[] strings = new String[stringCount];
+        Tag[] tagCache = new Tag[stringCount];
+        for (int i = 0; i < stringCount; i++) {
+            int length = map.getInt();
+            if (length < 0 || length > map.remaining()) {
+                throw new IOException("Corrupt scene string table: entry " + i + " has length " + length);
+            }
+            byte[] bytes = new byte[length];
+            map.get(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        
+        if ((long) count * BYTES_PER_OBJECT > map.remaining()) {
+            throw new IOException("Truncated scene file: " + count + " objects need " + (long) count * BYTES_PER_OBJECT
+                + " bytes, " + map.remaining() + " left");
+        }
+        byte[] masks = new byte[count];
+        map.get(masks);
+        int[] names = getInts(map, count);
+        int[] tags = getInts(map, count);
+        float[][] transform = new float[TRANSFORM_COLUMNS][];
+        for (int c = 0; c < TRANSFORM_COLUMNS; c++) {
+            transform[c] = getFloats(map, count);
+        }
+        float[][] physics = new float[PHYSICS_COLUMNS][];
+        for (int c = 0; c < PHYSICS_COLUMNS; c++) {
+            physics[c] = getFloats(map, count);
+        }
+        byte[] physicsFlags = new byte[count];
+        map.get(physicsFlags);
+        float[][] render = new float[RENDER_COLUMNS][];
+        for (int c = 0; c < RENDER_COLUMNS; c++) {
+            render[c] = getFloats(map, count);
+        }
+        byte[] renderInfo = new byte[count];
+        map.get(renderInfo);
+        
+        RenderComponent.RenderType[] renderTypes = RenderComponent.RenderType.values();
+        List<GameObject> objects = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (names[i] < -1 || names[i] >= stringCount || tags[i] < -1 || tags[i] >= stringCount) {
+                throw new IOException("Corrupt scene object " + i + ": string index out of range");
+            }
+            Tag tag = null;
+            if (tags[i] >= 0) {
+                if (tagCache[tags[i]] == null) {
+                    tagCache[tags[i]] = Tag.of(strings[tags[i]]);
+                }
+                tag = tagCache[tags[i]];
+            }
+            GameObject obj = new GameObject(names[i] >= 0 ? strings[names[i]] : null, tag);
+            int mask = masks[i];
+            // Attached in one go, as Prefab does, so initialize() already sees the object's other components
+            int componentCount = Integer.bitCount(mask & (HAS_TRANSFORM | HAS_PHYSICS | HAS_RENDER));
+            Component<?>[] attached = new Component<?>[componentCount];
+            int attachedCount = 0;
+            
+            if ((mask & HAS_TRANSFORM) != 0) {
+                attached[attachedCount++] = new TransformComponent(
+                    new Vector2(transform[0][i], transform[1][i]),
+                    new Vector2(transform[2][i], transform[3][i]),
+                    transform[4][i]);
+            }
+            if ((mask & HAS_PHYSICS) != 0) {
+                PhysicsComponent p = new PhysicsComponent(physics[2][i]);
+                p.setFriction(physics[3][i]);
+                p.setGravity(new Vector2(physics[4][i], physics[5][i]));
+                p.setAllowSleep((physicsFlags[i] & PHYSICS_SLEEP) != 0);
+                p.setUseGravity((physicsFlags[i] & PHYSICS_GRAVITY) != 0);
+                p.setVelocity(physics[0][i], physics[1][i]);
+                attached[attachedCount++] = p;
+            }
+            if ((mask & HAS_RENDER) != 0) {
+                int info = renderInfo[i];
+                if ((info & 0x7F) >= renderTypes.length) {
+                    throw new IOException("Corrupt scene object " + i + ": unknown render type " + (info & 0x7F));
+                }
+                RenderComponent r = new RenderComponent(
+                    renderTypes[info & 0x7F],
+                    new Vector2(render[0][i], render[1][i]),
+                    new RenderComponent.Color(render[2][i], render[3][i], render[4][i], render[5][i]));
+                r.setVisible((info & RENDER_VISIBLE) != 0);
+                attached[attachedCount++] = r;
+            }
+            obj.addComponents(attached);
+            objects.add(obj);
+        }
+        return objects;
+    }
+    
+    private static int[] getInts(ByteBuffer buffer, int count) {
+        int[] values = new int[count];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + count * 4);
+        return values;
+    }
+    
+    private static float[] getFloats(ByteBuffer buffer, int count) {
+        float[] values = new float[count];
+        buffer.asFloatBuffer().get(values);
+        buffer.position(buffer.position() + count * 4);
+        return values;
+    }
+}
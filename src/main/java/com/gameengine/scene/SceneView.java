@@ -0,0 +1,44 @@
+package com.gameengine.scene;
+
+import com.gameengine.core.GameObject;
+import java.util.AbstractList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.RandomAccess;
+
+public class SceneView extends AbstractList<GameObject> implements RandomAccess {
+    private final Scene scene;
+    private final List<GameObject> gameObjects;
+    private final int epoch;
+    
+    SceneView(Scene scene, List<GameObject> gameObjects, int epoch) {
+        this.scene = scene;
+        this.gameObjects = gameObjects;
+        this.epoch = epoch;
+    }
+    
+    @Override
+    public GameObject get(int index) {
+        GameObject obj = gameObjects.get(index);
+        if (scene.getStructureEpoch() != epoch) {
+            throw new ConcurrentModificationException("Scene structure changed since this view was taken");
+        }
+        return obj;
+    }
+    
+    @Override
+    public int size() {
+        if (scene.getStructureEpoch() != epoch) {
+            throw new ConcurrentModificationException("Scene structure changed since this view was taken");
+        }
+        return gameObjects.size();
+    }
+    
+    public boolean isValid() {
+        return scene.getStructureEpoch() == epoch;
+    }
+    
+    public int getEpoch() {
+        return epoch;
+    }
+}
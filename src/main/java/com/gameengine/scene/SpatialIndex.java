@@ -0,0 +1,255 @@
+package com.gameengine.scene;
+
+import com.gameengine.collision.DynamicAabbTree;
+import com.gameengine.collision.SweptCollision;
+import com.gameengine.components.ColliderComponent;
+import com.gameengine.components.PhysicsComponent;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.core.GameObject;
+import java.util.List;
+import java.util.function.Predicate;
+
+public class SpatialIndex {
+    public static final class RaycastHit {
+        private GameObject object;
+        private float fraction;
+        private float x;
+        private float y;
+        
+        public GameObject getObject() {
+            return object;
+        }
+        
+        public float getFraction() {
+            return fraction;
+        }
+        
+        public float getX() {
+            return x;
+        }
+        
+        public float getY() {
+            return y;
+        }
+    }
+    
+    private final DynamicAabbTree tree;
+    private float minX;
+    private float minY;
+    private float maxX;
+    private float maxY;
+    
+    public SpatialIndex() {
+        this(DynamicAabbTree.DEFAULT_MARGIN);
+    }
+    
+    public SpatialIndex(float margin) {
+        this.tree = new DynamicAabbTree(margin, 64);
+    }
+    
+    // Objects are indexed by their collider's bounds, or as a point at their position when they have no collider;
+    // objects without a transform are left out. New objects get a proxy, moved ones only touch the tree when they
+    // leave their fat bounds.
+    public void update(List<GameObject> gameObjects, float deltaTime) {
+        for (int i = 0; i < gameObjects.size(); i++) {
+            update(gameObjects.get(i), deltaTime);
+        }
+    }
+    
+    public void update(GameObject obj, float deltaTime) {
+        if (!obj.isActive() || !computeBounds(obj)) {
+            remove(obj);
+            return;
+        }
+        int proxy = obj.getSpatialProxy();
+        if (!tree.contains(proxy, obj)) {
+            obj.setSpatialProxy(tree.createProxy(obj, minX, minY, maxX, maxY));
+        } else {
+            PhysicsComponent physics = obj.getComponent(PhysicsComponent.class);
+            float dx = physics != null ? physics.getVelocityX() * deltaTime : 0;
+            float dy = physics != null ? physics.getVelocityY() * deltaTime : 0;
+            tree.moveProxy(proxy, minX, minY, maxX, maxY, dx, dy);
+        }
+    }
+    
+    private boolean computeBounds(GameObject obj) {
+        TransformComponent transform = obj.getComponent(TransformComponent.class);
+        if (transform == null) {
+            return false;
+        }
+        float x = transform.getX();
+        float y = transform.getY();
+        ColliderComponent collider = obj.getComponent(ColliderComponent.class);
+        if (collider == null || !collider.isEnabled()) {
+            minX = maxX = x;
+            minY = maxY = y;
+        } else {
+            x += collider.getOffsetX();
+            y += collider.getOffsetY();
+            minX = x - collider.getHalfWidth();
+            minY = y - collider.getHalfHeight();
+            maxX = x + collider.getHalfWidth();
+            maxY = y + collider.getHalfHeight();
+        }
+        return true;
+    }
+    
+    public void remove(GameObject obj) {
+        int proxy = obj.getSpatialProxy();
+        if (tree.contains(proxy, obj)) {
+            tree.destroyProxy(proxy);
+        }
+        obj.setSpatialProxy(-1);
+    }
+    
+    public void clear(List<GameObject> gameObjects) {
+        for (int i = 0; i < gameObjects.size(); i++) {
+            gameObjects.get(i).setSpatialProxy(-1);
+        }
+        tree.clear();
+    }
+    
+    // Objects whose shape touches the circle; point objects count when their position is inside it
+    public List<GameObject> queryRadius(float x, float y, float radius, List<GameObject> result) {
+        tree.query(x - radius, y - radius, x + radius, y + radius, proxy -> {
+            GameObject obj = tree.getObject(proxy);
+            if (overlapsCircle(obj, x, y, radius)) {
+                result.add(obj);
+            }
+            return true;
+        });
+        return result;
+    }
+    
+    public List<GameObject> queryRect(float x0, float y0, float x1, float y1, List<GameObject> result) {
+        tree.query(x0, y0, x1, y1, proxy -> {
+            GameObject obj = tree.getObject(proxy);
+            if (overlapsRect(obj, x0, y0, x1, y1)) {
+                result.add(obj);
+            }
+            return true;
+        });
+        return result;
+    }
+    
+    // First collider hit by the segment, or null. Point objects have no extent and are never hit.
+    public RaycastHit raycast(float x0, float y0, float x1, float y1, Predicate<GameObject> filter) {
+        float dx = x1 - x0;
+        float dy = y1 - y0;
+        RaycastHit hit = new RaycastHit();
+        tree.raycast(x0, y0, x1, y1, 1, (proxy, maxFraction) -> {
+            GameObject obj = tree.getObject(proxy);
+            if (filter != null && !filter.test(obj)) {
+                return -1;
+            }
+            float t = rayFraction(obj, x0, y0, dx, dy);
+            if (t < 0 || t > maxFraction || (hit.object != null && t >= hit.fraction)) {
+                return -1;
+            }
+            hit.object = obj;
+            hit.fraction = t;
+            return t;
+        });
+        if (hit.object == null) {
+            return null;
+        }
+        hit.x = x0 + dx * hit.fraction;
+        hit.y = y0 + dy * hit.fraction;
+        return hit;
+    }
+    
+    // Closest object by distance to its collider center (its position when it has none), within maxDistance
+    public GameObject nearest(float x, float y, float maxDistance, Predicate<GameObject> filter) {
+        int proxy = tree.nearest(x, y, maxDistance, p -> {
+            GameObject obj = tree.getObject(p);
+            if (filter != null && !filter.test(obj)) {
+                return -1;
+            }
+            TransformComponent transform = obj.getComponent(TransformComponent.class);
+            if (transform == null) {
+                return -1;
+            }
+            ColliderComponent collider = obj.getComponent(ColliderComponent.class);
+            float cx = transform.getX();
+            float cy = transform.getY();
+            if (collider != null && collider.isEnabled()) {
+                cx += collider.getOffsetX();
+                cy += collider.getOffsetY();
+            }
+            float ox = cx - x;
+            float oy = cy - y;
+            return ox * ox + oy * oy;
+        });
+        return proxy == DynamicAabbTree.NULL_NODE ? null : tree.getObject(proxy);
+    }
+    
+    private static boolean overlapsCircle(GameObject obj, float x, float y, float radius) {
+        TransformComponent transform = obj.getComponent(TransformComponent.class);
+        if (transform == null) return false;
+        ColliderComponent collider = obj.getComponent(ColliderComponent.class);
+        float cx = transform.getX();
+        float cy = transform.getY();
+        if (collider == null || !collider.isEnabled()) {
+            return distanceSquared(x, y, cx, cy) <= radius * radius;
+        }
+        cx += collider.getOffsetX();
+        cy += collider.getOffsetY();
+        if (collider.getShape() == ColliderComponent.Shape.CIRCLE) {
+            float r = radius + collider.getRadius();
+            return distanceSquared(x, y, cx, cy) <= r * r;
+        }
+        float nx = Math.max(cx - collider.getHalfWidth(), Math.min(x, cx + collider.getHalfWidth()));
+        float ny = Math.max(cy - collider.getHalfHeight(), Math.min(y, cy + collider.getHalfHeight()));
+        return distanceSquared(x, y, nx, ny) <= radius * radius;
+    }
+    
+    private static boolean overlapsRect(GameObject obj, float x0, float y0, float x1, float y1) {
+        TransformComponent transform = obj.getComponent(TransformComponent.class);
+        if (transform == null) return false;
+        ColliderComponent collider = obj.getComponent(ColliderComponent.class);
+        float cx = transform.getX();
+        float cy = transform.getY();
+        if (collider == null || !collider.isEnabled()) {
+            return cx >= x0 && cx <= x1 && cy >= y0 && cy <= y1;
+        }
+        cx += collider.getOffsetX();
+        cy += collider.getOffsetY();
+        if (collider.getShape() == ColliderComponent.Shape.CIRCLE) {
+            float nx = Math.max(x0, Math.min(cx, x1));
+            float ny = Math.max(y0, Math.min(cy, y1));
+            return distanceSquared(cx, cy, nx, ny) <= collider.getRadius() * collider.getRadius();
+        }
+        return cx + collider.getHalfWidth() >= x0 && cx - collider.getHalfWidth() <= x1
+            && cy + collider.getHalfHeight() >= y0 && cy - collider.getHalfHeight() <= y1;
+    }
+    
+    private static float rayFraction(GameObject obj, float x0, float y0, float dx, float dy) {
+        TransformComponent transform = obj.getComponent(TransformComponent.class);
+        ColliderComponent collider = obj.getComponent(ColliderComponent.class);
+        if (transform == null || collider == null || !collider.isEnabled()) {
+            return SweptCollision.NO_HIT;
+        }
+        float cx = transform.getX() + collider.getOffsetX();
+        float cy = transform.getY() + collider.getOffsetY();
+        if (collider.getShape() == ColliderComponent.Shape.CIRCLE) {
+            return SweptCollision.sweepCircleCircle(x0, y0, 0, dx, dy, cx, cy, collider.getRadius(), 0, 0);
+        }
+        return SweptCollision.sweepCircleAABB(x0, y0, 0, dx, dy,
+            cx - collider.getHalfWidth(), cy - collider.getHalfHeight(),
+            cx + collider.getHalfWidth(), cy + collider.getHalfHeight());
+    }
+    
+    private static float distanceSquared(float x0, float y0, float x1, float y1) {
+        float dx = x1 - x0;
+        float dy = y1 - y0;
+        return dx * dx + dy * dy;
+    }
+    
+    public DynamicAabbTree getTree() {
+        return tree;
+    }
+    
+    public int size() {
+        return tree.getProxyCount();
+    }
+}
@@ -0,0 +1,211 @@
+package com.gameengine.scene;
+
+import com.gameengine.core.GameObject;
+import com.gameengine.core.GameObjectListener;
+import com.gameengine.core.Tag;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TagIndex implements GameObjectListener {
+    private static final List<GameObject> EMPTY = Collections.emptyList();
+    
+    // Members are swap-removed, so their order shifts; first is tracked on its own so findFirst* keeps returning the
+    // same object until that object itself leaves, then falls to the earliest created member left
+    private static class Group {
+        private final ArrayList<GameObject> members = new ArrayList<>();
+        private final List<GameObject> view = Collections.unmodifiableList(members);
+        private GameObject first;
+        
+        void add(GameObject gameObject) {
+            members.add(gameObject);
+            if (first == null) {
+                first = gameObject;
+            }
+        }
+        
+        void removed(GameObject gameObject) {
+            if (first != gameObject) {
+                return;
+            }
+            first = null;
+            for (int i = 0; i < members.size(); i++) {
+                GameObject candidate = members.get(i);
+                if (first == null || candidate.getId() < first.getId()) {
+                    first = candidate;
+                }
+            }
+        }
+    }
+    
+    private final Map<Tag, Group> byTag;
+    private final Map<String, Group> byName;
+    
+    public TagIndex() {
+        this.byTag = new HashMap<>();
+        this.byName = new HashMap<>();
+    }
+    
+    public void add(GameObject gameObject) {
+        Tag tag = gameObject.getTag();
+        if (tag != null) {
+            addToTag(gameObject, tag);
+        }
+        addToName(gameObject, gameObject.getName());
+        gameObject.setListener(this);
+    }
+    
+    // Batches from a prefab share one tag and name, so each group is looked up and grown once per run
+    public void addAll(List<GameObject> gameObjects) {
+        Tag lastTag = null;
+        Group tagGroup = null;
+        String lastName = null;
+        Group nameGroup = null;
+        int size = gameObjects.size();
+        for (int i = 0; i < size; i++) {
+            GameObject gameObject = gameObjects.get(i);
+            Tag tag = gameObject.getTag();
+            if (tag != null) {
+                if (tag != lastTag) {
+                    lastTag = tag;
+                    tagGroup = byTag.computeIfAbsent(tag, t -> new Group());
+                    tagGroup.members.ensureCapacity(tagGroup.members.size() + size - i);
+                }
+                gameObject.setTagSlot(tagGroup.members.size());
+                tagGroup.add(gameObject);
+            }
+            String name = gameObject.getName();
+            if (name != null) {
+                if (!name.equals(lastName)) {
+                    lastName = name;
+                    nameGroup = byName.computeIfAbsent(name, n -> new Group());
+                    nameGroup.members.ensureCapacity(nameGroup.members.size() + size - i);
+                }
+                gameObject.setNameSlot(nameGroup.members.size());
+                nameGroup.add(gameObject);
+            }
+            gameObject.setListener(this);
+        }
+    }
+    
+    public void remove(GameObject gameObject) {
+        if (gameObject.getListener() != this) {
+            return;
+        }
+        gameObject.setListener(null);
+        Tag tag = gameObject.getTag();
+        if (tag != null) {
+            removeFromTag(gameObject, tag);
+        }
+        removeFromName(gameObject, gameObject.getName());
+    }
+    
+    public void clear() {
+        for (Group group : byTag.values()) {
+            for (GameObject obj : group.members) {
+                obj.setListener(null);
+                obj.setTagSlot(-1);
+            }
+        }
+        for (Group group : byName.values()) {
+            for (GameObject obj : group.members) {
+                obj.setListener(null);
+                obj.setNameSlot(-1);
+            }
+        }
+        byTag.clear();
+        byName.clear();
+    }
+    
+    @Override
+    public void onNameChanged(GameObject gameObject, String oldName) {
+        removeFromName(gameObject, oldName);
+        addToName(gameObject, gameObject.getName());
+    }
+    
+    @Override
+    public void onTagChanged(GameObject gameObject, Tag oldTag) {
+        if (oldTag != null) {
+            removeFromTag(gameObject, oldTag);
+        }
+        if (gameObject.getTag() != null) {
+            addToTag(gameObject, gameObject.getTag());
+        }
+    }
+    
+    public List<GameObject> findByTag(Tag tag) {
+        Group group = byTag.get(tag);
+        return group != null ? group.view : EMPTY;
+    }
+    
+    public GameObject findFirstByTag(Tag tag) {
+        Group group = byTag.get(tag);
+        return group != null ? group.first : null;
+    }
+    
+    public List<GameObject> findByName(String name) {
+        Group group = byName.get(name);
+        return group != null ? group.view : EMPTY;
+    }
+    
+    public GameObject findFirstByName(String name) {
+        Group group = byName.get(name);
+        return group != null ? group.first : null;
+    }
+    
+    private void addToTag(GameObject gameObject, Tag tag) {
+        Group group = byTag.computeIfAbsent(tag, t -> new Group());
+        gameObject.setTagSlot(group.members.size());
+        group.add(gameObject);
+    }
+    
+    private void removeFromTag(GameObject gameObject, Tag tag) {
+        Group group = byTag.get(tag);
+        if (group == null) {
+            return;
+        }
+        int slot = gameObject.getTagSlot();
+        if (slot < 0 || slot >= group.members.size() || group.members.get(slot) != gameObject) {
+            return;
+        }
+        GameObject last = group.members.remove(group.members.size() - 1);
+        if (last != gameObject) {
+            group.members.set(slot, last);
+            last.setTagSlot(slot);
+        }
+        gameObject.setTagSlot(-1);
+        group.removed(gameObject);
+    }
+    
+    private void addToName(GameObject gameObject, String name) {
+        if (name == null) {
+            return;
+        }
+        Group group = byName.computeIfAbsent(name, n -> new Group());
+        gameObject.setNameSlot(group.members.size());
+        group.add(gameObject);
+    }
+    
+    private void removeFromName(GameObject gameObject, String name) {
+        if (name == null) {
+            return;
+        }
+        Group group = byName.get(name);
+        if (group == null) {
+            return;
+        }
+        int slot = gameObject.getNameSlot();
+        if (slot < 0 || slot >= group.members.size() || group.members.get(slot) != gameObject) {
+            return;
+        }
+        GameObject last = group.members.remove(group.members.size() - 1);
+        if (last != gameObject) {
+            group.members.set(slot, last);
+            last.setNameSlot(slot);
+        }
+        gameObject.setNameSlot(-1);
+        group.removed(gameObject);
+    }
+}
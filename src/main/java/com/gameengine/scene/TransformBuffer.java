@@ -0,0 +1,169 @@
+package com.gameengine.scene;
+
+import com.gameengine.components.RenderComponent;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.core.GameObject;
+import com.gameengine.graphics.Renderer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+
+public class TransformBuffer {
+    public static final int HEADER_BYTES = 16;
+    public static final int RECORD_BYTES = 52;
+    
+    public static final int FRAME_OFFSET = 0;
+    public static final int COUNT_OFFSET = 8;
+    
+    public static final int ID = 0;
+    public static final int FLAGS = 4;
+    public static final int POSITION_X = 8;
+    public static final int POSITION_Y = 12;
+    public static final int SCALE_X = 16;
+    public static final int SCALE_Y = 20;
+    public static final int ROTATION = 24;
+    public static final int WIDTH = 28;
+    public static final int HEIGHT = 32;
+    public static final int COLOR_R = 36;
+    public static final int COLOR_G = 40;
+    public static final int COLOR_B = 44;
+    public static final int COLOR_A = 48;
+    
+    public static final int RENDER_TYPE_MASK = 0xFF;
+    public static final int HAS_RENDER = 1 << 8;
+    public static final int VISIBLE = 1 << 9;
+    public static final int BATCHED = 1 << 10;
+    
+    private volatile ByteBuffer front;
+    private ByteBuffer back;
+    private volatile long frame;
+    
+    public TransformBuffer() {
+        this(256);
+    }
+    
+    public TransformBuffer(int capacity) {
+        this.front = allocate(Math.max(1, capacity));
+        this.back = allocate(Math.max(1, capacity));
+    }
+    
+    private static ByteBuffer allocate(int capacity) {
+        return ByteBuffer.allocateDirect(HEADER_BYTES + capacity * RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    }
+    
+    public static int recordOffset(int index) {
+        return HEADER_BYTES + index * RECORD_BYTES;
+    }
+    
+    // Fixed-stride little-endian records, one per active object with a transform, written with absolute puts so
+    // no per-entity objects are created. Writing goes to the back buffer and the two buffers swap at the end, so
+    // a consumer holding the front buffer sees a complete frame until the next publish after that.
+    public void publish(List<GameObject> objects, Renderer renderer) {
+        int size = objects.size();
+        if (back.capacity() < recordOffset(size)) {
+            back = allocate(Math.max(size, (back.capacity() - HEADER_BYTES) / RECORD_BYTES * 2));
+        }
+        ByteBuffer out = back;
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            GameObject obj = objects.get(i);
+            if (!obj.isActive()) continue;
+            TransformComponent transform = obj.getComponent(TransformComponent.class);
+            if (transform == null) continue;
+            
+            int offset = recordOffset(count++);
+            out.putInt(offset + ID, obj.getId());
+            out.putFloat(offset + POSITION_X, transform.getX());
+            out.putFloat(offset + POSITION_Y, transform.getY());
+            out.putFloat(offset + SCALE_X, transform.getScaleX());
+            out.putFloat(offset + SCALE_Y, transform.getScaleY());
+            out.putFloat(offset + ROTATION, transform.getRotation());
+            
+            RenderComponent render = obj.getComponent(RenderComponent.class);
+            if (render == null) {
+                out.putInt(offset + FLAGS, 0);
+                continue;
+            }
+            RenderComponent.Color color = render.getColor();
+            // Drawn from the buffer by the scene instead; disabled components and ones bound to another renderer (or
+            // none) keep their own render() path, which is what decides whether they are drawn
+            boolean batched = renderer != null && render.isEnabled() && render.getRenderer() == renderer;
+            out.putInt(offset + FLAGS, render.getRenderType().ordinal() | HAS_RENDER
+                | (render.isVisible() ? VISIBLE : 0) | (batched ? BATCHED : 0));
+            out.putFloat(offset + WIDTH, render.getWidth());
+            out.putFloat(offset + HEIGHT, render.getHeight());
+            out.putFloat(offset + COLOR_R, color.r);
+            out.putFloat(offset + COLOR_G, color.g);
+            out.putFloat(offset + COLOR_B, color.b);
+            out.putFloat(offset + COLOR_A, color.a);
+            if (batched) {
+                render.setBatchRendered(true);
+            }
+        }
+        long next = frame + 1;
+        out.putLong(FRAME_OFFSET, next);
+        out.putInt(COUNT_OFFSET, count);
+        
+        back = front;
+        front = out;
+        frame = next;
+    }
+    
+    public void draw(Renderer renderer) {
+        ByteBuffer in = front;
+        RenderComponent.RenderType[] types = RenderComponent.RenderType.values();
+        int count = in.getInt(COUNT_OFFSET);
+        for (int i = 0; i < count; i++) {
+            int offset = recordOffset(i);
+            int flags = in.getInt(offset + FLAGS);
+            if ((flags & (BATCHED | VISIBLE)) != (BATCHED | VISIBLE)) continue;
+            float x = in.getFloat(offset + POSITION_X);
+            float y = in.getFloat(offset + POSITION_Y);
+            float width = in.getFloat(offset + WIDTH);
+            float height = in.getFloat(offset + HEIGHT);
+            float r = in.getFloat(offset + COLOR_R);
+            float g = in.getFloat(offset + COLOR_G);
+            float b = in.getFloat(offset + COLOR_B);
+            float a = in.getFloat(offset + COLOR_A);
+            switch (types[flags & RENDER_TYPE_MASK]) {
+                case RECTANGLE:
+                    renderer.drawRect(x, y, width, height, r, g, b, a);
+                    break;
+                case CIRCLE:
+                    renderer.drawCircle(x + width / 2, y + height / 2, width / 2, 16, r, g, b, a);
+                    break;
+                case LINE:
+                    renderer.drawLine(x, y, x + width, y + height, r, g, b, a);
+                    break;
+            }
+        }
+    }
+    
+    // Read-only view of the latest frame with its own position and limit; it stays valid until the publish after
+    // next overwrites the memory, so a consumer on another thread has one full frame to finish reading
+    public ByteBuffer getFrame() {
+        ByteBuffer view = front.asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+        view.limit(recordOffset(view.getInt(COUNT_OFFSET)));
+        return view;
+    }
+    
+    public long getFrameNumber() {
+        return frame;
+    }
+    
+    public int getCount() {
+        return front.getInt(COUNT_OFFSET);
+    }
+    
+    public int getId(int index) {
+        return front.getInt(recordOffset(index) + ID);
+    }
+    
+    public float getX(int index) {
+        return front.getFloat(recordOffset(index) + POSITION_X);
+    }
+    
+    public float getY(int index) {
+        return front.getFloat(recordOffset(index) + POSITION_Y);
+    }
+}
@@ -0,0 +1,12 @@
+package com.gameengine.world;
+
+import com.gameengine.core.GameObject;
+import java.util.List;
+
+public interface ChunkLoader {
+    // Called on the partition's loader thread; the returned objects must not be in any scene yet
+    List<GameObject> load(int chunkX, int chunkY);
+    
+    // Called on the loader thread after the chunk has left the scene, e.g. to persist it
+    void unload(int chunkX, int chunkY, List<GameObject> objects);
+}
@@ -0,0 +1,41 @@
+package com.gameengine.world;
+
+import com.gameengine.core.GameObject;
+import java.util.ArrayList;
+import java.util.List;
+
+public class WorldChunk {
+    public enum State {
+        LOADING,
+        RESIDENT,
+        ACTIVE
+    }
+    
+    private final int chunkX;
+    private final int chunkY;
+    final List<GameObject> objects;
+    State state;
+    
+    WorldChunk(int chunkX, int chunkY) {
+        this.chunkX = chunkX;
+        this.chunkY = chunkY;
+        this.objects = new ArrayList<>();
+        this.state = State.LOADING;
+    }
+    
+    public int getChunkX() {
+        return chunkX;
+    }
+    
+    public int getChunkY() {
+        return chunkY;
+    }
+    
+    public State getState() {
+        return state;
+    }
+    
+    public int getObjectCount() {
+        return objects.size();
+    }
+}
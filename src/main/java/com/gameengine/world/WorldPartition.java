@@ -0,0 +1,273 @@
+package com.gameengine.world;
+
+import com.gameengine.components.TransformComponent;
+import com.gameengine.core.GameObject;
+import com.gameengine.scene.Scene;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class WorldPartition {
+    public static final int DEFAULT_ACTIVE_RADIUS = 1;
+    public static final int DEFAULT_RESIDENT_RADIUS = 2;
+    
+    private static class LoadResult {
+        private final WorldChunk chunk;
+        private final List<GameObject> objects;
+        
+        LoadResult(WorldChunk chunk, List<GameObject> objects) {
+            this.chunk = chunk;
+            this.objects = objects;
+        }
+    }
+    
+    private final Scene scene;
+    private final float chunkSize;
+    private final ChunkLoader loader;
+    private final Map<Long, WorldChunk> chunks;
+    private final ConcurrentLinkedQueue<LoadResult> completed;
+    private final ExecutorService loaderExecutor;
+    private int activeRadius;
+    private int residentRadius;
+    private int focusChunkX;
+    private int focusChunkY;
+    private boolean focusValid;
+    
+    public WorldPartition(Scene scene, float chunkSize, ChunkLoader loader) {
+        this.scene = scene;
+        this.chunkSize = chunkSize;
+        this.loader = loader;
+        this.chunks = new HashMap<>();
+        this.completed = new ConcurrentLinkedQueue<>();
+        this.loaderExecutor = Executors.newSingleThreadExecutor();
+        this.activeRadius = DEFAULT_ACTIVE_RADIUS;
+        this.residentRadius = DEFAULT_RESIDENT_RADIUS;
+    }
+    
+    public static long key(int chunkX, int chunkY) {
+        return ((long) chunkX << 32) | (chunkY & 0xFFFFFFFFL);
+    }
+    
+    public int toChunk(float coordinate) {
+        return (int) Math.floor(coordinate / chunkSize);
+    }
+    
+    // Call once per frame from the simulation thread before Scene.update. Chunks within the active radius are
+    // in the scene; chunks out to the resident radius stay loaded but are neither updated nor rendered; anything
+    // further is handed back to the loader. Loading and unloading run on the loader thread.
+    public void update(float focusX, float focusY) {
+        drainCompletedLoads();
+        
+        int chunkX = toChunk(focusX);
+        int chunkY = toChunk(focusY);
+        if (!focusValid || chunkX != focusChunkX || chunkY != focusChunkY) {
+            focusChunkX = chunkX;
+            focusChunkY = chunkY;
+            focusValid = true;
+            refresh();
+        }
+        
+        rebin();
+    }
+    
+    private void refresh() {
+        Iterator<WorldChunk> iterator = chunks.values().iterator();
+        while (iterator.hasNext()) {
+            WorldChunk chunk = iterator.next();
+            int distance = distanceToFocus(chunk.getChunkX(), chunk.getChunkY());
+            if (distance > residentRadius) {
+                if (chunk.state == WorldChunk.State.ACTIVE) {
+                    deactivate(chunk);
+                }
+                iterator.remove();
+                if (chunk.state != WorldChunk.State.LOADING) {
+                    scheduleUnload(chunk);
+                }
+            } else if (distance > activeRadius) {
+                if (chunk.state == WorldChunk.State.ACTIVE) {
+                    deactivate(chunk);
+                }
+            } else if (chunk.state == WorldChunk.State.RESIDENT) {
+                activate(chunk);
+            }
+        }
+        
+        for (int y = focusChunkY - residentRadius; y <= focusChunkY + residentRadius; y++) {
+            for (int x = focusChunkX - residentRadius; x <= focusChunkX + residentRadius; x++) {
+                if (!chunks.containsKey(key(x, y))) {
+                    scheduleLoad(new WorldChunk(x, y));
+                }
+            }
+        }
+    }
+    
+    private void scheduleLoad(WorldChunk chunk) {
+        chunks.put(key(chunk.getChunkX(), chunk.getChunkY()), chunk);
+        loaderExecutor.submit(() -> {
+            List<GameObject> objects;
+            try {
+                objects = loader.load(chunk.getChunkX(), chunk.getChunkY());
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+                objects = null;
+            }
+            completed.add(new LoadResult(chunk, objects));
+        });
+    }
+    
+    private void scheduleUnload(WorldChunk chunk) {
+        List<GameObject> objects = chunk.objects;
+        loaderExecutor.submit(() -> {
+            try {
+                loader.unload(chunk.getChunkX(), chunk.getChunkY(), objects);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        });
+    }
+    
+    private void drainCompletedLoads() {
+        LoadResult result;
+        while ((result = completed.poll()) != null) {
+            WorldChunk chunk = result.chunk;
+            if (result.objects != null) {
+                chunk.objects.addAll(0, result.objects);
+            }
+            // A chunk that went out of range while loading was already dropped from the map. Its objects never
+            // entered the scene, but the loaded ones and any that add() queued meanwhile still go back to the loader.
+            if (chunks.get(key(chunk.getChunkX(), chunk.getChunkY())) != chunk) {
+                scheduleUnload(chunk);
+                continue;
+            }
+            
+            chunk.state = WorldChunk.State.RESIDENT;
+            if (focusValid && distanceToFocus(chunk.getChunkX(), chunk.getChunkY()) <= activeRadius) {
+                activate(chunk);
+            }
+        }
+    }
+    
+    private void activate(WorldChunk chunk) {
+        chunk.state = WorldChunk.State.ACTIVE;
+        for (int i = 0; i < chunk.objects.size(); i++) {
+            scene.addGameObject(chunk.objects.get(i));
+        }
+    }
+    
+    private void deactivate(WorldChunk chunk) {
+        chunk.state = WorldChunk.State.RESIDENT;
+        for (int i = 0; i < chunk.objects.size(); i++) {
+            scene.removeGameObject(chunk.objects.get(i));
+        }
+    }
+    
+    // Moves objects that walked out of their active chunk into the chunk they are now in. If that chunk is only
+    // resident the object leaves the scene with it; if it is not loaded yet the object stays where it is for now.
+    private void rebin() {
+        for (WorldChunk chunk : chunks.values()) {
+            if (chunk.state != WorldChunk.State.ACTIVE) continue;
+            List<GameObject> objects = chunk.objects;
+            for (int i = objects.size() - 1; i >= 0; i--) {
+                GameObject obj = objects.get(i);
+                if (!obj.isActive()) {
+                    removeAt(objects, i);
+                    continue;
+                }
+                TransformComponent transform = obj.getComponent(TransformComponent.class);
+                if (transform == null) continue;
+                int x = toChunk(transform.getX());
+                int y = toChunk(transform.getY());
+                if (x == chunk.getChunkX() && y == chunk.getChunkY()) continue;
+                
+                WorldChunk target = chunks.get(key(x, y));
+                if (target == null || target.state == WorldChunk.State.LOADING) continue;
+                removeAt(objects, i);
+                target.objects.add(obj);
+                if (target.state != WorldChunk.State.ACTIVE) {
+                    scene.removeGameObject(obj);
+                }
+            }
+        }
+    }
+    
+    private static void removeAt(List<GameObject> objects, int index) {
+        int last = objects.size() - 1;
+        if (index != last) {
+            objects.set(index, objects.get(last));
+        }
+        objects.remove(last);
+    }
+    
+    public void add(GameObject obj) {
+        TransformComponent transform = obj.getComponent(TransformComponent.class);
+        int x = transform != null ? toChunk(transform.getX()) : 0;
+        int y = transform != null ? toChunk(transform.getY()) : 0;
+        WorldChunk chunk = chunks.get(key(x, y));
+        if (chunk == null) {
+            chunk = new WorldChunk(x, y);
+            scheduleLoad(chunk);
+        }
+        chunk.objects.add(obj);
+        if (chunk.state == WorldChunk.State.ACTIVE) {
+            scene.addGameObject(obj);
+        }
+    }
+    
+    private int distanceToFocus(int chunkX, int chunkY) {
+        return Math.max(Math.abs(chunkX - focusChunkX), Math.abs(chunkY - focusChunkY));
+    }
+    
+    public WorldChunk getChunk(int chunkX, int chunkY) {
+        return chunks.get(key(chunkX, chunkY));
+    }
+    
+    public int getLoadedChunkCount() {
+        return chunks.size();
+    }
+    
+    public int getActiveChunkCount() {
+        int count = 0;
+        for (WorldChunk chunk : chunks.values()) {
+            if (chunk.state == WorldChunk.State.ACTIVE) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    public float getChunkSize() {
+        return chunkSize;
+    }
+    
+    public int getActiveRadius() {
+        return activeRadius;
+    }
+    
+    public int getResidentRadius() {
+        return residentRadius;
+    }
+    
+    public void setRadii(int activeRadius, int residentRadius) {
+        this.activeRadius = Math.max(0, activeRadius);
+        this.residentRadius = Math.max(this.activeRadius, residentRadius);
+        focusValid = false;
+    }
+    
+    public void shutdown() {
+        loaderExecutor.shutdown();
+        try {
+            if (!loaderExecutor.awaitTermination(1, TimeUnit.SECONDS)) {
+                loaderExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            loaderExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}